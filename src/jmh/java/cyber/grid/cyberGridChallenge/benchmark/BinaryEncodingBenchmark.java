@@ -0,0 +1,102 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * JSON against CBOR for the cursor pages of /api/v1/products and /expensive: encoding on the server and decoding on
+ * a consumer, with mappers configured like Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryEncodingBenchmark {
+
+    private static final TypeReference<CursorPageDTO<ProductDTO>> PAGE_TYPE = new TypeReference<>() { };
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private CursorPageDTO<ProductDTO> page;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(new CBORFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<ProductDTO> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> ProductDTO.builder()
+                        .id(id)
+                        .name("Product " + id)
+                        .description("Description of product " + id)
+                        .price(Money.ofCents(1000 + id * 100))
+                        .status(ProductStatus.ACTIVE)
+                        .version(1L)
+                        .updatedOn(LocalDateTime.of(2024, 5, 1, 12, 30).plusSeconds(id))
+                        .build())
+                .toList();
+        page = CursorPageDTO.<ProductDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .hasNext(true)
+                .nextCursor("UFJJQ0V8QVNDfDEwMHwxMTAuMA")
+                .build();
+        json = jsonMapper.writeValueAsBytes(page);
+        cbor = cborMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CursorPageDTO<ProductDTO> decodeJson() throws IOException {
+        return jsonMapper.readValue(json, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public CursorPageDTO<ProductDTO> decodeCbor() throws IOException {
+        return cborMapper.readValue(cbor, PAGE_TYPE);
+    }
+}
@@ -0,0 +1,93 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.exception.ErrorResponse;
+import cyber.grid.cyberGridChallenge.exception.GlobalExceptionHandler;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.exception.ProductNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses, including construction of the exception each request throws. The generic handler
+ * prints its stack trace, so stderr is redirected to a discarding stream while it runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private MethodParameter createParameter;
+    private PrintStream stderr;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        createParameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("create", ProductCreateDTO.class), 0);
+        stderr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setErr(stderr);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> productNotFound() {
+        return handler.handleProductNotFoundException(new ProductNotFoundException(42L));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> invalidCursor() {
+        return handler.handleBadRequestException(new InvalidCursorException("Malformed cursor"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> validation() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new ProductCreateDTO(), "productCreateDTO");
+        bindingResult.rejectValue("name", "NotBlank", "Name is required");
+        bindingResult.rejectValue("price", "NotNull", "Price is required");
+        return handler.handleValidationExceptions(new MethodArgumentNotValidException(createParameter, bindingResult));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> dataIntegrityViolation() {
+        return handler.handleDataIntegrityViolationException(
+                new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unexpected() {
+        return handler.handleGenericException(new IllegalStateException("boom"));
+    }
+
+    @SuppressWarnings("unused")
+    private void create(ProductCreateDTO productCreateDTO) {
+    }
+}
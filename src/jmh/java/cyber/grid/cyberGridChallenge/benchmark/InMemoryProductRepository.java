@@ -0,0 +1,129 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.UpdatedProduct;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Map-backed stand-in for the repository methods ProductService calls on its single-item and offset paths,
+ * and those loading the catalog snapshot (which sees no later changes), so service benchmarks measure the
+ * service itself rather than JDBC and PostgreSQL. Any other repository
+ * method throws UnsupportedOperationException. At most capacity products are kept: new ids wrap around and
+ * replace the oldest entry, so long write benchmarks run in constant memory.
+ */
+final class InMemoryProductRepository implements InvocationHandler {
+
+    private final ConcurrentNavigableMap<Long, Product> products = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final int capacity;
+
+    private InMemoryProductRepository(int capacity) {
+        this.capacity = capacity;
+    }
+
+    static ProductRepository create(int capacity) {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, new InMemoryProductRepository(capacity));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "save", "saveAndFlush" -> save((Product) args[0]);
+            case "saveAll", "insertAll" -> saveAll((Iterable<Product>) args[0]);
+            case "findByIdAndStatusNot" -> Optional.ofNullable(products.get((Long) args[0]))
+                    .filter(product -> product.getStatus() != args[1]);
+            case "findActiveByIds" -> ((Collection<Long>) args[0]).stream()
+                    .map(products::get)
+                    .filter(product -> product != null && product.getStatus() != ProductStatus.DELETED)
+                    .toList();
+            case "findAllActive" -> findAllActive((Pageable) args[0]);
+            case "forEachActive" -> {
+                products.values().stream()
+                        .filter(product -> product.getStatus() != ProductStatus.DELETED)
+                        .forEach((Consumer<Product>) args[0]);
+                yield null;
+            }
+            case "findChangedAfter" -> List.of();
+            case "findChangeHorizon" -> 0L;
+            case "updateIfCurrent" -> updateIfCurrent((Product) args[0], (Long) args[1]);
+            case "countActive", "estimateActive" -> countActive();
+            case "count" -> (long) products.size();
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "InMemoryProductRepository[" + products.size() + " products]";
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private Product save(Product product) {
+        LocalDateTime now = LocalDateTime.now();
+        if (product.getId() == null) {
+            product.setId(ids.getAndIncrement() % capacity + 1);
+            product.setCreatedOn(now);
+            product.setVersion(0L);
+        }
+        product.setUpdatedOn(now);
+        products.put(product.getId(), product);
+        return product;
+    }
+
+    private Optional<UpdatedProduct> updateIfCurrent(Product changes, Long expectedVersion) {
+        Product current = products.get(changes.getId());
+        if (current == null || current.getStatus() == ProductStatus.DELETED
+                || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+            return Optional.empty();
+        }
+        Product updated = Product.builder()
+                .id(current.getId())
+                .name(changes.getName())
+                .description(changes.getDescription())
+                .price(changes.getPrice())
+                .status(changes.getStatus() != null ? changes.getStatus() : current.getStatus())
+                .createdOn(current.getCreatedOn())
+                .updatedOn(LocalDateTime.now())
+                .version(current.getVersion() + 1)
+                .build();
+        products.put(updated.getId(), updated);
+        return Optional.of(new UpdatedProduct(updated, current.getPrice()));
+    }
+
+    private List<Product> saveAll(Iterable<Product> batch) {
+        List<Product> saved = new ArrayList<>();
+        batch.forEach(product -> saved.add(save(product)));
+        return saved;
+    }
+
+    /**
+     * Pages through active products in id order; the requested sort is ignored.
+     */
+    private List<Product> findAllActive(Pageable pageable) {
+        return products.values().stream()
+                .filter(product -> product.getStatus() != ProductStatus.DELETED)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private long countActive() {
+        return products.values().stream()
+                .filter(product -> product.getStatus() != ProductStatus.DELETED)
+                .count();
+    }
+}
@@ -0,0 +1,21 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+
+import java.util.Collection;
+
+/**
+ * Outbox that drops events, like the in-memory repository keeps the database out of service benchmarks.
+ */
+final class NoOpProductOutboxRepository extends ProductOutboxRepository {
+
+    NoOpProductOutboxRepository() {
+        super(null);
+    }
+
+    @Override
+    public int append(ProductChangeType type, Collection<Long> productIds) {
+        return productIds.size();
+    }
+}
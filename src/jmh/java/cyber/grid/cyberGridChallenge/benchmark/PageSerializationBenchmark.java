@@ -0,0 +1,106 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cyber.grid.cyberGridChallenge.config.ProductListHttpMessageConverter;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductListDTO;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * JSON rendering of list responses: the offset Page returned by GET /api/products and the keyset
+ * CursorPageDTO returned by /cursor and /expensive, built with the same Jackson defaults Spring Boot uses,
+ * against the compact ProductListDTO written by ProductListHttpMessageConverter (and by Jackson, for reference).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> page;
+    private CursorPageDTO<ProductDTO> cursorPage;
+    private ProductListDTO productList;
+    private ProductListHttpMessageConverter productListConverter;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<ProductDTO> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> ProductDTO.builder()
+                        .id(id)
+                        .name("Product " + id)
+                        .description("Description of product " + id)
+                        .price(Money.ofCents(1000 + id * 100))
+                        .status(ProductStatus.ACTIVE)
+                        .version(1L)
+                        .updatedOn(LocalDateTime.of(2024, 5, 1, 12, 30).plusSeconds(id))
+                        .build())
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize, Sort.by("id")), 10_000);
+        cursorPage = CursorPageDTO.<ProductDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .hasNext(true)
+                .nextCursor("UFJJQ0V8QVNDfDEwMHwxMTAuMA")
+                .build();
+        productList = new ProductListDTO(content, cursorPage.getNextCursor(),
+                "http://localhost:8080/api/v1/products?size=" + pageSize + "&cursor=" + cursorPage.getNextCursor());
+        productListConverter = new ProductListHttpMessageConverter();
+        out = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+
+    @Benchmark
+    public byte[] productListJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productList);
+    }
+
+    @Benchmark
+    public int productListCompact() throws IOException {
+        out.reset();
+        productListConverter.write(productList, out);
+        return out.size();
+    }
+}
@@ -0,0 +1,93 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.service.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pages and price ranges read from the off-heap catalog snapshot, at the start and the middle of the catalog.
+ * Run with -prof gc to see what a read allocates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductCatalogBenchmark {
+
+    @Param({"100000"})
+    private int products;
+
+    private ProductCatalogSnapshot snapshot;
+    private Pageable firstPageByName;
+    private Pageable middlePageByName;
+    private Pageable middlePageByPriceDescending;
+    private Money middlePrice;
+
+    @Setup
+    public void setUp() {
+        ProductRepository productRepository = InMemoryProductRepository.create(products);
+        for (int i = 1; i <= products; i++) {
+            productRepository.save(Product.builder()
+                    .name("Product " + Integer.toHexString(i * 7919))
+                    .description("Description of product " + i)
+                    .price(Money.ofCents(100 + (i * 7919L) % 100_000))
+                    .build());
+        }
+        snapshot = new ProductCatalogSnapshot(productRepository,
+                new StaticListableBeanFactory().getBeanProvider(ReplicaLagGuard.class), PrimaryReads.withoutTransaction(),
+                new SimpleMeterRegistry(), true, 10_000, Duration.ofDays(1), Duration.ofDays(1));
+        snapshot.refresh();
+
+        firstPageByName = PageRequest.of(0, 20, Sort.by("name"));
+        middlePageByName = PageRequest.of(products / 40, 20, Sort.by("name"));
+        middlePageByPriceDescending = PageRequest.of(products / 40, 20, Sort.by(Sort.Direction.DESC, "price"));
+        middlePrice = Money.ofCents(50_000);
+    }
+
+    @Benchmark
+    public Page<ProductDTO> firstPageByName() {
+        return snapshot.findAll(firstPageByName).orElseThrow();
+    }
+
+    @Benchmark
+    public Page<ProductDTO> middlePageByName() {
+        return snapshot.findAll(middlePageByName).orElseThrow();
+    }
+
+    @Benchmark
+    public Page<ProductDTO> middlePageByPriceDescending() {
+        return snapshot.findAll(middlePageByPriceDescending).orElseThrow();
+    }
+
+    @Benchmark
+    public List<ProductDTO> priceRange() {
+        return snapshot.findByPrice(middlePrice, null, Sort.Direction.ASC, null, 21).orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapperImpl;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions run for every product read and write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+
+    private Product product;
+    private ProductCreateDTO productCreateDTO;
+    private ProductUpdateDTO productUpdateDTO;
+
+    @Setup
+    public void setUp() {
+        product = Product.builder()
+                .id(42L)
+                .name("Laptop")
+                .description("14-inch ultrabook")
+                .price(Money.valueOf("1299.99"))
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+        productCreateDTO = ProductCreateDTO.builder()
+                .name("Laptop")
+                .description("14-inch ultrabook")
+                .price(Money.valueOf("1299.99"))
+                .build();
+        productUpdateDTO = ProductUpdateDTO.builder()
+                .name("Laptop Pro")
+                .description("16-inch workstation")
+                .price(Money.valueOf("2499.0"))
+                .status(ProductStatus.ACTIVE)
+                .build();
+    }
+
+    @Benchmark
+    public ProductDTO toDTO() {
+        return productMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return productMapper.toEntity(productCreateDTO);
+    }
+
+    @Benchmark
+    public Product updateFromDto() {
+        Product target = Product.builder().id(42L).price(Money.valueOf("1")).build();
+        productMapper.updateFromDto(productUpdateDTO, target);
+        return target;
+    }
+}
@@ -0,0 +1,143 @@
+package cyber.grid.cyberGridChallenge.benchmark;
+
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.BulkResultDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductBatchDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapperImpl;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.service.PrimaryReads;
+import cyber.grid.cyberGridChallenge.service.ProductCacheInvalidationChannel;
+import cyber.grid.cyberGridChallenge.service.ProductCacheInvalidator;
+import cyber.grid.cyberGridChallenge.service.ProductCounter;
+import cyber.grid.cyberGridChallenge.service.ProductLookupCoalescer;
+import cyber.grid.cyberGridChallenge.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * ProductService called directly, without the Spring caching proxy, over an in-memory repository so the
+ * numbers cover mapping, validation and cache invalidation rather than the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    private ValidatorFactory validatorFactory;
+    private ProductService productService;
+    private Pageable firstPage;
+    private ProductCreateDTO productCreateDTO;
+    private ProductUpdateDTO productUpdateDTO;
+    private List<ProductCreateDTO> batch;
+    private List<Long> cartIds;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        ProductRepository productRepository = InMemoryProductRepository.create(PRODUCTS);
+        // Single instance: the cross-instance invalidation channel stays disabled
+        ProductCacheInvalidationChannel channel = new ProductCacheInvalidationChannel(
+                null, null, null, null, false, "product_cache", Duration.ZERO, Duration.ZERO);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTS_CACHE, CacheConfig.EXPENSIVE_PRODUCTS_CACHE,
+                CacheConfig.PRODUCT_COUNT_CACHE);
+        ProductMapperImpl productMapper = new ProductMapperImpl();
+        PrimaryReads primaryReads = PrimaryReads.withoutTransaction();
+        // Single caller: lookups are not coalesced
+        ProductLookupCoalescer coalescer = new ProductLookupCoalescer(
+                productRepository, productMapper, primaryReads, null, false, Duration.ZERO, 1);
+        // Pages come from the repository, not the catalog snapshot (see ProductCatalogBenchmark)
+        ProductCatalogSnapshot catalogSnapshot = new ProductCatalogSnapshot(
+                productRepository, null, primaryReads, new SimpleMeterRegistry(), false, 0, Duration.ZERO, Duration.ZERO);
+        productService = new ProductService(productRepository, productMapper,
+                new ProductCacheInvalidator(cacheManager, channel),
+                validatorFactory.getValidator(), new NoOpProductOutboxRepository(), coalescer, cacheManager,
+                catalogSnapshot, new ProductCounter(productRepository, cacheManager, primaryReads, ProductCountMode.EXACT),
+                primaryReads);
+        ReflectionTestUtils.setField(productService, "maxLookupIds", PRODUCTS);
+
+        IntStream.rangeClosed(1, PRODUCTS).forEach(i -> productService.createProduct(product(i)));
+        firstPage = PageRequest.of(0, 20, Sort.by("id"));
+        productCreateDTO = product(PRODUCTS + 1);
+        productUpdateDTO = ProductUpdateDTO.builder().name("Updated").description("Updated description").price(Money.valueOf("99.0")).build();
+        batch = IntStream.rangeClosed(1, 50).mapToObj(ProductServiceBenchmark::product).toList();
+        cartIds = LongStream.rangeClosed(1, 30).map(i -> i * 7).boxed().toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public ProductDTO getProductById() {
+        return productService.getProductById(PRODUCTS / 2L);
+    }
+
+    @Benchmark
+    public ProductBatchDTO getProductsByIds() {
+        return productService.getProductsByIds(cartIds);
+    }
+
+    @Benchmark
+    public Page<ProductDTO> getAllProducts() {
+        return productService.getAllProducts(firstPage);
+    }
+
+    @Benchmark
+    public ProductDTO createProduct() {
+        return productService.createProduct(productCreateDTO);
+    }
+
+    @Benchmark
+    public ProductDTO updateProduct() {
+        return productService.updateProduct(PRODUCTS / 4L, productUpdateDTO);
+    }
+
+    @Benchmark
+    public BulkResultDTO createProducts() {
+        return productService.createProducts(batch);
+    }
+
+    private static ProductCreateDTO product(int i) {
+        return ProductCreateDTO.builder()
+                .name("Product " + i)
+                .description("Description of product " + i)
+                .price(Money.ofCents(1000 + i * 100L))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Append-only store of UTF-8 strings in a few large buffers, so a million strings cost a handful of objects rather
+ * than a million. A string is addressed by a reference (chunk index in the high half, offset in the low half) and
+ * its byte length; it never spans chunks, and one longer than a chunk gets a chunk of its own.
+ */
+final class ByteArena {
+
+    private final IntFunction<ByteBuffer> allocator;
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long capacity;
+
+    ByteArena(IntFunction<ByteBuffer> allocator, int chunkSize) {
+        this.allocator = allocator;
+        this.chunkSize = chunkSize;
+    }
+
+    long append(byte[] bytes) {
+        return append(bytes.length, chunk -> chunk.put(bytes));
+    }
+
+    /**
+     * Copies a string of another arena without decoding it.
+     */
+    long copy(ByteArena source, long ref, int length) {
+        ByteBuffer from = source.slice(ref, length);
+        return append(length, chunk -> chunk.put(from));
+    }
+
+    private long append(int length, Consumer<ByteBuffer> writer) {
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < length) {
+            chunk = allocator.apply(Math.max(chunkSize, length));
+            chunks.add(chunk);
+            capacity += chunk.capacity();
+        }
+        long ref = (long) (chunks.size() - 1) << 32 | chunk.position();
+        writer.accept(chunk);
+        return ref;
+    }
+
+    String read(long ref, int length) {
+        byte[] bytes = new byte[length];
+        chunks.get(chunk(ref)).get(offset(ref), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares two strings byte by byte, unsigned, which for UTF-8 is code point order: the order of
+     * COLLATE "C", which database name sorts use too.
+     */
+    static int compare(ByteArena a, long refA, int lengthA, ByteArena b, long refB, int lengthB) {
+        ByteBuffer chunkA = a.chunks.get(chunk(refA));
+        ByteBuffer chunkB = b.chunks.get(chunk(refB));
+        int offsetA = offset(refA);
+        int offsetB = offset(refB);
+        int length = Math.min(lengthA, lengthB);
+        for (int i = 0; i < length; i++) {
+            int comparison = Byte.compareUnsigned(chunkA.get(offsetA + i), chunkB.get(offsetB + i));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(lengthA, lengthB);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    private ByteBuffer slice(long ref, int length) {
+        return chunks.get(chunk(ref)).slice(offset(ref), length);
+    }
+
+    private static int chunk(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static int offset(long ref) {
+        return (int) ref;
+    }
+}
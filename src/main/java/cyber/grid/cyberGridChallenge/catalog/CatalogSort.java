@@ -0,0 +1,24 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+
+/**
+ * Orders the catalog snapshot keeps rows in, each tie-broken by id so every row has one position.
+ */
+enum CatalogSort {
+    ID,
+    NAME,
+    PRICE,
+    CREATED_ON,
+    UPDATED_ON;
+
+    static CatalogSort of(ProductSortField sortField) {
+        return switch (sortField) {
+            case ID -> ID;
+            case NAME -> NAME;
+            case PRICE -> PRICE;
+            case CREATED_ON -> CREATED_ON;
+            case UPDATED_ON -> UPDATED_ON;
+        };
+    }
+}
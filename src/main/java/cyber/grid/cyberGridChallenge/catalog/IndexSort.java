@@ -0,0 +1,53 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+/**
+ * Merge sort of row indexes by a comparator over rows, so an order can be computed without boxing every index.
+ */
+final class IndexSort {
+
+    /** Ranges this short are insertion sorted. */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int rowA, int rowB);
+    }
+
+    private IndexSort() {
+    }
+
+    static void sort(int[] rows, RowComparator comparator) {
+        int[] scratch = rows.clone();
+        sort(scratch, rows, 0, rows.length, comparator);
+    }
+
+    /**
+     * Sorts source[from, to) into target[from, to); both start out holding the same elements.
+     */
+    private static void sort(int[] source, int[] target, int from, int to, RowComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(target[j], row) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(target, source, from, middle, comparator);
+        sort(target, source, middle, to, comparator);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && comparator.compare(source[left], source[right]) <= 0) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+}
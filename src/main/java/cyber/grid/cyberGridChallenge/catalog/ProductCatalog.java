@@ -0,0 +1,228 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of the active catalog: an off-heap base, plus the rows written since it was built (the overlay)
+ * in small on-heap columns of their own. Base rows rewritten or deleted since are shadowed, and reads merge the
+ * base and the overlay in each order, so applying a change costs in proportion to the overlay rather than a
+ * rebuild. {@link #compact()} folds the overlay into a new base.
+ */
+final class ProductCatalog {
+
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(ProductColumns columns, int row);
+    }
+
+    @FunctionalInterface
+    interface RowPredicate {
+        boolean test(ProductColumns columns, int row);
+    }
+
+    private static final int[] NONE = new int[0];
+
+    private final ProductColumns base;
+    private final ProductColumns overlay;
+    private final int[] shadowedRows;
+    private final Map<CatalogSort, Merge> merges = new EnumMap<>(CatalogSort.class);
+
+    private ProductCatalog(ProductColumns base, ProductColumns overlay, int[] shadowedRows) {
+        this.base = base;
+        this.overlay = overlay;
+        this.shadowedRows = shadowedRows;
+        for (CatalogSort sort : CatalogSort.values()) {
+            merges.put(sort, merge(sort));
+        }
+    }
+
+    static ProductCatalog of(ProductColumns base) {
+        return new ProductCatalog(base, ProductColumns.builder(false, 0).build(), NONE);
+    }
+
+    /**
+     * Active rows.
+     */
+    int size() {
+        return base.size() - shadowedRows.length + overlay.size();
+    }
+
+    /**
+     * Rows held on heap for changes since the base was built, shadowed base rows included.
+     */
+    int overlaySize() {
+        return overlay.size() + shadowedRows.length;
+    }
+
+    long bytes() {
+        return base.bytes() + overlay.bytes();
+    }
+
+    /**
+     * Applies rows read back after they were written: each replaces the row with its id, or removes it once
+     * deleted. Later rows of the same id win.
+     */
+    ProductCatalog apply(List<Product> changes) {
+        TreeMap<Long, Product> latest = new TreeMap<>();
+        changes.forEach(product -> latest.put(product.getId(), product));
+
+        ProductColumns.Builder builder = ProductColumns.builder(false, overlay.size() + latest.size());
+        int row = 0;
+        for (Product product : latest.values()) {
+            for (; row < overlay.size() && overlay.id(row) < product.getId(); row++) {
+                builder.copy(overlay, row);
+            }
+            if (row < overlay.size() && overlay.id(row) == product.getId()) {
+                row++;
+            }
+            if (product.getStatus() != ProductStatus.DELETED) {
+                builder.add(product);
+            }
+        }
+        for (; row < overlay.size(); row++) {
+            builder.copy(overlay, row);
+        }
+
+        int[] shadowed = Arrays.copyOf(shadowedRows, shadowedRows.length + latest.size());
+        int count = shadowedRows.length;
+        for (Long id : latest.keySet()) {
+            int baseRow = base.rowOf(id);
+            if (baseRow >= 0 && Arrays.binarySearch(shadowedRows, baseRow) < 0) {
+                shadowed[count++] = baseRow;
+            }
+        }
+        shadowed = Arrays.copyOf(shadowed, count);
+        Arrays.sort(shadowed);
+        return new ProductCatalog(base, builder.build(), shadowed);
+    }
+
+    /**
+     * Builds a new off-heap base holding every active row, with an empty overlay.
+     */
+    ProductCatalog compact() {
+        ProductColumns.Builder builder = ProductColumns.builder(true, size());
+        int shadowed = 0;
+        int next = 0;
+        for (int row = 0; row < base.size(); row++) {
+            if (shadowed < shadowedRows.length && shadowedRows[shadowed] == row) {
+                shadowed++;
+                continue;
+            }
+            for (; next < overlay.size() && overlay.id(next) < base.id(row); next++) {
+                builder.copy(overlay, next);
+            }
+            builder.copy(base, row);
+        }
+        for (; next < overlay.size(); next++) {
+            builder.copy(overlay, next);
+        }
+        return of(builder.build());
+    }
+
+    /**
+     * Visits the rows at positions [from, to) of the order, in that order.
+     */
+    void forEach(CatalogSort sort, int from, int to, RowVisitor visitor) {
+        Merge merge = merges.get(sort);
+        int[] insertions = merge.insertions();
+        int[] shadowed = merge.shadowed();
+
+        // Overlay rows ahead of position from: the j-th one sits at j plus the unshadowed base rows before it
+        int low = 0;
+        int high = insertions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int position = middle + insertions[middle] - countBelow(shadowed, insertions[middle]);
+            if (position < from) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int next = low;
+        // The rest of the rows ahead come from the base; find the first base position after them
+        int position = from - next;
+        int skipped = 0;
+        while (skipped < shadowed.length && shadowed[skipped] <= position) {
+            position++;
+            skipped++;
+        }
+
+        for (int emitted = from; emitted < to; emitted++) {
+            if (next < insertions.length && (position >= base.size() || insertions[next] <= position)) {
+                visitor.visit(overlay, overlay.row(sort, next++));
+            } else {
+                visitor.visit(base, base.row(sort, position++));
+                while (skipped < shadowed.length && shadowed[skipped] == position) {
+                    position++;
+                    skipped++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of rows ordered before a target, given a predicate true exactly for the rows before it.
+     */
+    int rank(CatalogSort sort, RowPredicate before) {
+        int basePosition = lowerBound(base, sort, before);
+        return basePosition - countBelow(merges.get(sort).shadowed(), basePosition) + lowerBound(overlay, sort, before);
+    }
+
+    private Merge merge(CatalogSort sort) {
+        int[] shadowed = shadowedRows;
+        if (sort != CatalogSort.ID) {
+            shadowed = new int[shadowedRows.length];
+            for (int i = 0; i < shadowedRows.length; i++) {
+                int row = shadowedRows[i];
+                shadowed[i] = lowerBound(base, sort, (columns, other) -> columns.compare(sort, other, base, row) < 0);
+            }
+            Arrays.sort(shadowed);
+        }
+        int[] insertions = new int[overlay.size()];
+        for (int position = 0; position < insertions.length; position++) {
+            int row = overlay.row(sort, position);
+            insertions[position] = lowerBound(base, sort, (columns, other) -> columns.compare(sort, other, overlay, row) < 0);
+        }
+        return new Merge(shadowed, insertions);
+    }
+
+    private static int lowerBound(ProductColumns columns, CatalogSort sort, RowPredicate before) {
+        int low = 0;
+        int high = columns.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (before.test(columns, columns.row(sort, middle))) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int countBelow(int[] sorted, int value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Where the overlay joins the base in one order: the base positions shadowed, ascending, and for each overlay
+     * row in that order the base position it goes before.
+     */
+    private record Merge(int[] shadowed, int[] insertions) {
+    }
+}
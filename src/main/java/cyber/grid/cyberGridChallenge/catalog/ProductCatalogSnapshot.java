@@ -0,0 +1,264 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ChangedProduct;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import cyber.grid.cyberGridChallenge.service.PrimaryReads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Optional near-cache of every active product, held by each instance as off-heap columns (see {@link ProductColumns})
+ * so the heap, and with it garbage collection, stays flat however large the catalog grows. Offset pages sorted by
+ * any sortable field and price ranges are served from it without touching the database.
+ * <p>
+ * The snapshot is loaded with one scan, then kept current from the rows written since (by change position, like
+ * the change feed, so only finished transactions are applied) into a small on-heap overlay, folded into a new
+ * off-heap base once it outgrows max-delta-rows; it is reloaded in full every reload-interval. Both read the primary.
+ * Until it is loaded, while it lags by more than max-lag, and for requests that must read their own writes, reads
+ * go to the database instead.
+ */
+@Component
+@Slf4j
+public class ProductCatalogSnapshot {
+
+    public static final String ROWS = "product.catalog.rows";
+    public static final String BYTES = "product.catalog.bytes";
+
+    private static final int DELTA_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ReplicaLagGuard> replicaLagGuard;
+    private final PrimaryReads primaryReads;
+    private final boolean enabled;
+    private final int maxDeltaRows;
+    private final Duration reloadInterval;
+    private final Duration maxLag;
+
+    private volatile ProductCatalog catalog;
+    private volatile long syncedAt;
+    // Only touched by the refreshing thread
+    private ProductChangeCursor changesAfter;
+    private long loadedAt;
+
+    public ProductCatalogSnapshot(ProductRepository productRepository,
+                                  ObjectProvider<ReplicaLagGuard> replicaLagGuard,
+                                  PrimaryReads primaryReads,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.catalog.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${app.catalog.snapshot.max-delta-rows:10000}") int maxDeltaRows,
+                                  @Value("${app.catalog.snapshot.reload-interval:1h}") Duration reloadInterval,
+                                  @Value("${app.catalog.snapshot.max-lag:30s}") Duration maxLag) {
+        this.productRepository = productRepository;
+        this.replicaLagGuard = replicaLagGuard;
+        this.primaryReads = primaryReads;
+        this.enabled = enabled;
+        this.maxDeltaRows = maxDeltaRows;
+        this.reloadInterval = reloadInterval;
+        this.maxLag = maxLag;
+        Gauge.builder(ROWS, this, snapshot -> snapshot.catalog == null ? 0 : snapshot.catalog.size())
+                .register(meterRegistry);
+        Gauge.builder(BYTES, this, snapshot -> snapshot.catalog == null ? 0 : snapshot.catalog.bytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the snapshot when due, otherwise applies the rows written since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.refresh-interval:1s}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // On the primary: the horizon and the rows must come from the same server, and a lagging replica's
+            // rows would be served from the snapshot until overwritten
+            if (catalog == null || System.nanoTime() - loadedAt >= reloadInterval.toNanos()) {
+                catalog = primaryReads.read(this::load);
+            }
+            primaryReads.read(() -> {
+                catchUp();
+                return null;
+            });
+            syncedAt = System.nanoTime();
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the product catalog snapshot", ex);
+        }
+    }
+
+    /**
+     * A page of active products, when the snapshot can serve it: unsorted (id order) or sorted by one sortable
+     * field, optionally followed by id in the same direction.
+     */
+    public Optional<Page<ProductDTO>> findAll(Pageable pageable) {
+        return page(pageable, ProductColumns::toDTO);
+    }
+
+    /**
+     * Up to limit active products priced above minPrice and up to maxPrice (either bound may be null), ordered
+     * by (price, id) in the given direction and continuing after the keyset position if given.
+     */
+    public Optional<List<ProductDTO>> findByPrice(Money minPrice, Money maxPrice, Sort.Direction direction,
+                                                  ProductCursor after, int limit) {
+        ProductCatalog current = servable();
+        if (current == null) {
+            return Optional.empty();
+        }
+        int start = minPrice == null ? 0 : current.rank(CatalogSort.PRICE, atMost(minPrice.cents(), Long.MAX_VALUE));
+        int end = maxPrice == null ? current.size() : current.rank(CatalogSort.PRICE, atMost(maxPrice.cents(), Long.MAX_VALUE));
+        if (after != null) {
+            long afterCents = ((Money) after.value()).cents();
+            if (direction.isAscending()) {
+                start = Math.max(start, current.rank(CatalogSort.PRICE, atMost(afterCents, after.id())));
+            } else {
+                end = Math.min(end, current.rank(CatalogSort.PRICE, below(afterCents, after.id())));
+            }
+        }
+        if (start >= end) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(direction.isAscending()
+                ? read(current, CatalogSort.PRICE, start, Math.min(end, start + limit), ProductColumns::toDTO, false)
+                : read(current, CatalogSort.PRICE, Math.max(start, end - limit), end, ProductColumns::toDTO, true));
+    }
+
+    private <T> Optional<Page<T>> page(Pageable pageable, RowReader<T> reader) {
+        ProductCatalog current = servable();
+        if (current == null) {
+            return Optional.empty();
+        }
+        CatalogSort sort = CatalogSort.ID;
+        boolean ascending = true;
+        if (pageable.getSort().isSorted()) {
+            List<Sort.Order> orders = pageable.getSort().toList();
+            Sort.Order order = orders.get(0);
+            Optional<CatalogSort> supported = !order.isIgnoreCase() && (orders.size() == 1 || isIdTieBreak(orders, order))
+                    ? ProductSortField.fromProperty(order.getProperty()).map(CatalogSort::of)
+                    : Optional.empty();
+            if (supported.isEmpty()) {
+                return Optional.empty();
+            }
+            sort = supported.get();
+            ascending = order.isAscending();
+        }
+
+        int total = current.size();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : total;
+        if (offset >= total) {
+            return Optional.of(new PageImpl<>(List.of(), pageable, total));
+        }
+        int from = (int) offset;
+        int to = (int) Math.min(total, offset + size);
+        List<T> content = ascending
+                ? read(current, sort, from, to, reader, false)
+                : read(current, sort, total - to, total - from, reader, true);
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Whether the orders are the first one then id in its direction, which every order here already ends with.
+     */
+    private static boolean isIdTieBreak(List<Sort.Order> orders, Sort.Order first) {
+        Sort.Order second = orders.get(1);
+        return orders.size() == 2 && !second.isIgnoreCase() && second.getDirection() == first.getDirection()
+                && ProductSortField.fromProperty(second.getProperty()).orElse(null) == ProductSortField.ID;
+    }
+
+    private static <T> List<T> read(ProductCatalog catalog, CatalogSort sort, int from, int to, RowReader<T> reader,
+                                    boolean reversed) {
+        List<T> rows = new ArrayList<>(to - from);
+        catalog.forEach(sort, from, to, (columns, row) -> rows.add(reader.read(columns, row)));
+        if (reversed) {
+            Collections.reverse(rows);
+        }
+        return rows;
+    }
+
+    private ProductCatalog servable() {
+        ProductCatalog current = catalog;
+        if (!enabled || current == null || System.nanoTime() - syncedAt > maxLag.toNanos()) {
+            return null;
+        }
+        ReplicaLagGuard guard = replicaLagGuard.getIfAvailable();
+        return guard != null && guard.isPrimaryRequired() ? null : current;
+    }
+
+    private ProductCatalog load() {
+        long start = System.nanoTime();
+        // Writes of this transaction or later ones are applied as changes, so a write racing the scan is never lost
+        long horizon = productRepository.findChangeHorizon();
+        // Sized up front: a direct buffer outgrown mid-scan stays allocated until GC collects its wrapper, and the
+        // headroom covers rows inserted between the count and the scan
+        long active = productRepository.countActive();
+        ProductColumns.Builder builder = ProductColumns.builder(true, Math.toIntExact(active + active / 8));
+        productRepository.forEachActive(builder::add);
+        ProductCatalog loaded = ProductCatalog.of(builder.build());
+        changesAfter = new ProductChangeCursor(horizon - 1, Long.MAX_VALUE);
+        loadedAt = System.nanoTime();
+        log.info("Loaded {} products ({} bytes) into the catalog snapshot in {} ms", loaded.size(), loaded.bytes(),
+                Duration.ofNanos(loadedAt - start).toMillis());
+        return loaded;
+    }
+
+    /**
+     * Applies the rows written after the cursor by finished transactions, publishing each batch together with its cursor so a
+     * failure part way leaves the two in step.
+     */
+    private void catchUp() {
+        List<ChangedProduct> changes;
+        do {
+            changes = productRepository.findChangedAfter(changesAfter, DELTA_BATCH_SIZE);
+            if (changes.isEmpty()) {
+                return;
+            }
+            ProductCatalog current = catalog.apply(changes.stream().map(ChangedProduct::product).toList());
+            if (current.overlaySize() > maxDeltaRows) {
+                current = current.compact();
+                log.debug("Compacted the catalog snapshot to {} products", current.size());
+            }
+            catalog = current;
+            changesAfter = changes.get(changes.size() - 1).position();
+        } while (changes.size() == DELTA_BATCH_SIZE);
+    }
+
+    private static ProductCatalog.RowPredicate atMost(long cents, long id) {
+        return (columns, row) -> {
+            long price = columns.priceCents(row);
+            return price < cents || price == cents && columns.id(row) <= id;
+        };
+    }
+
+    private static ProductCatalog.RowPredicate below(long cents, long id) {
+        return (columns, row) -> {
+            long price = columns.priceCents(row);
+            return price < cents || price == cents && columns.id(row) < id;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowReader<T> {
+        T read(ProductColumns columns, int row);
+    }
+}
@@ -0,0 +1,312 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable column store of products in id order: one primitive buffer per field, names and descriptions in a
+ * shared {@link ByteArena}, and for each {@link CatalogSort} but id the rows in that order. Off-heap columns cost
+ * the garbage collector a few dozen objects however many rows they hold. They are direct buffers rather than
+ * {@code java.lang.foreign} segments, which are a preview API on Java 21 and would need {@code --enable-preview} to
+ * build and run.
+ */
+final class ProductColumns {
+
+    private static final int OFF_HEAP_CHUNK_SIZE = 8 << 20;
+    private static final int HEAP_CHUNK_SIZE = 64 << 10;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_LENGTH = -1;
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+
+    private final int size;
+    private final ByteBuffer ids;
+    private final ByteBuffer prices;
+    private final ByteBuffer versions;
+    private final ByteBuffer createdOn;
+    private final ByteBuffer updatedOn;
+    private final ByteBuffer statuses;
+    private final ByteBuffer nameRefs;
+    private final ByteBuffer nameLengths;
+    private final ByteBuffer descriptionRefs;
+    private final ByteBuffer descriptionLengths;
+    private final ByteArena arena;
+    private final Map<CatalogSort, ByteBuffer> orders;
+
+    private ProductColumns(Builder builder, Map<CatalogSort, ByteBuffer> orders) {
+        this.size = builder.size;
+        this.ids = builder.ids.buffer;
+        this.prices = builder.prices.buffer;
+        this.versions = builder.versions.buffer;
+        this.createdOn = builder.createdOn.buffer;
+        this.updatedOn = builder.updatedOn.buffer;
+        this.statuses = builder.statuses.buffer;
+        this.nameRefs = builder.nameRefs.buffer;
+        this.nameLengths = builder.nameLengths.buffer;
+        this.descriptionRefs = builder.descriptionRefs.buffer;
+        this.descriptionLengths = builder.descriptionLengths.buffer;
+        this.arena = builder.arena;
+        this.orders = orders;
+    }
+
+    static Builder builder(boolean offHeap, int expectedRows) {
+        return new Builder(offHeap, expectedRows);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long id(int row) {
+        return ids.getLong(row << 3);
+    }
+
+    long priceCents(int row) {
+        return prices.getLong(row << 3);
+    }
+
+    /**
+     * Row at a position of the given order.
+     */
+    int row(CatalogSort sort, int position) {
+        return sort == CatalogSort.ID ? position : orders.get(sort).getInt(position << 2);
+    }
+
+    /**
+     * Row holding the id, or -(insertion point) - 1 when there is none.
+     */
+    int rowOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = id(middle);
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Compares a row of these columns with a row of others (or the same) in the given order.
+     */
+    int compare(CatalogSort sort, int row, ProductColumns other, int otherRow) {
+        int comparison = switch (sort) {
+            case ID -> 0;
+            case NAME -> ByteArena.compare(arena, nameRefs.getLong(row << 3), nameLengths.getInt(row << 2),
+                    other.arena, other.nameRefs.getLong(otherRow << 3), other.nameLengths.getInt(otherRow << 2));
+            case PRICE -> Long.compare(priceCents(row), other.priceCents(otherRow));
+            case CREATED_ON -> Long.compare(timeKey(createdOn.getLong(row << 3)), timeKey(other.createdOn.getLong(otherRow << 3)));
+            case UPDATED_ON -> Long.compare(timeKey(updatedOn.getLong(row << 3)), timeKey(other.updatedOn.getLong(otherRow << 3)));
+        };
+        return comparison != 0 ? comparison : Long.compare(id(row), other.id(otherRow));
+    }
+
+    ProductDTO toDTO(int row) {
+        int descriptionLength = descriptionLengths.getInt(row << 2);
+        return ProductDTO.builder()
+                .id(id(row))
+                .name(arena.read(nameRefs.getLong(row << 3), nameLengths.getInt(row << 2)))
+                .description(descriptionLength == NULL_LENGTH ? null
+                        : arena.read(descriptionRefs.getLong(row << 3), descriptionLength))
+                .price(Money.ofCents(priceCents(row)))
+                .status(STATUSES[statuses.get(row)])
+                .version(versions.getLong(row << 3))
+                .updatedOn(time(updatedOn.getLong(row << 3)))
+                .build();
+    }
+
+    /**
+     * Bytes the columns, orders and arena hold.
+     */
+    long bytes() {
+        long bytes = arena.capacity();
+        for (ByteBuffer column : new ByteBuffer[]{ids, prices, versions, createdOn, updatedOn, statuses,
+                nameRefs, nameLengths, descriptionRefs, descriptionLengths}) {
+            bytes += column.capacity();
+        }
+        for (ByteBuffer order : orders.values()) {
+            bytes += order.capacity();
+        }
+        return bytes;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time == null ? NULL_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    /**
+     * Sorts missing times after every other, as PostgreSQL orders nulls ascending.
+     */
+    private static long timeKey(long micros) {
+        return micros == NULL_TIME ? Long.MAX_VALUE : micros;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return micros == NULL_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Appends rows in ascending id order, then sorts the orders once in {@link #build()}.
+     */
+    static final class Builder {
+
+        private final IntFunction<ByteBuffer> allocator;
+        private final ByteArena arena;
+        private final Column ids;
+        private final Column prices;
+        private final Column versions;
+        private final Column createdOn;
+        private final Column updatedOn;
+        private final Column statuses;
+        private final Column nameRefs;
+        private final Column nameLengths;
+        private final Column descriptionRefs;
+        private final Column descriptionLengths;
+        private final Column[] columns;
+        private int size;
+
+        private Builder(boolean offHeap, int expectedRows) {
+            this.allocator = offHeap
+                    ? capacity -> ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder())
+                    : capacity -> ByteBuffer.allocate(capacity).order(ByteOrder.nativeOrder());
+            this.arena = new ByteArena(allocator, offHeap ? OFF_HEAP_CHUNK_SIZE : HEAP_CHUNK_SIZE);
+            int rows = Math.max(expectedRows, 16);
+            this.ids = new Column(allocator, Long.BYTES, rows);
+            this.prices = new Column(allocator, Long.BYTES, rows);
+            this.versions = new Column(allocator, Long.BYTES, rows);
+            this.createdOn = new Column(allocator, Long.BYTES, rows);
+            this.updatedOn = new Column(allocator, Long.BYTES, rows);
+            this.statuses = new Column(allocator, Byte.BYTES, rows);
+            this.nameRefs = new Column(allocator, Long.BYTES, rows);
+            this.nameLengths = new Column(allocator, Integer.BYTES, rows);
+            this.descriptionRefs = new Column(allocator, Long.BYTES, rows);
+            this.descriptionLengths = new Column(allocator, Integer.BYTES, rows);
+            this.columns = new Column[]{ids, prices, versions, createdOn, updatedOn, statuses,
+                    nameRefs, nameLengths, descriptionRefs, descriptionLengths};
+        }
+
+        Builder add(Product product) {
+            long id = product.getId();
+            int row = next(id);
+            prices.buffer.putLong(row << 3, product.getPrice().cents());
+            versions.buffer.putLong(row << 3, product.getVersion() == null ? 0 : product.getVersion());
+            createdOn.buffer.putLong(row << 3, micros(product.getCreatedOn()));
+            updatedOn.buffer.putLong(row << 3, micros(product.getUpdatedOn()));
+            statuses.buffer.put(row, (byte) product.getStatus().ordinal());
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            nameRefs.buffer.putLong(row << 3, arena.append(name));
+            nameLengths.buffer.putInt(row << 2, name.length);
+            if (product.getDescription() == null) {
+                descriptionLengths.buffer.putInt(row << 2, NULL_LENGTH);
+            } else {
+                byte[] description = product.getDescription().getBytes(StandardCharsets.UTF_8);
+                descriptionRefs.buffer.putLong(row << 3, arena.append(description));
+                descriptionLengths.buffer.putInt(row << 2, description.length);
+            }
+            return this;
+        }
+
+        /**
+         * Copies a row of other columns, its strings included, without decoding it.
+         */
+        Builder copy(ProductColumns source, int sourceRow) {
+            int row = next(source.id(sourceRow));
+            prices.buffer.putLong(row << 3, source.priceCents(sourceRow));
+            versions.buffer.putLong(row << 3, source.versions.getLong(sourceRow << 3));
+            createdOn.buffer.putLong(row << 3, source.createdOn.getLong(sourceRow << 3));
+            updatedOn.buffer.putLong(row << 3, source.updatedOn.getLong(sourceRow << 3));
+            statuses.buffer.put(row, source.statuses.get(sourceRow));
+            int nameLength = source.nameLengths.getInt(sourceRow << 2);
+            nameRefs.buffer.putLong(row << 3, arena.copy(source.arena, source.nameRefs.getLong(sourceRow << 3), nameLength));
+            nameLengths.buffer.putInt(row << 2, nameLength);
+            int descriptionLength = source.descriptionLengths.getInt(sourceRow << 2);
+            if (descriptionLength != NULL_LENGTH) {
+                descriptionRefs.buffer.putLong(row << 3,
+                        arena.copy(source.arena, source.descriptionRefs.getLong(sourceRow << 3), descriptionLength));
+            }
+            descriptionLengths.buffer.putInt(row << 2, descriptionLength);
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        ProductColumns build() {
+            Map<CatalogSort, ByteBuffer> orders = new EnumMap<>(CatalogSort.class);
+            ProductColumns unsorted = new ProductColumns(this, orders);
+            for (CatalogSort sort : CatalogSort.values()) {
+                if (sort == CatalogSort.ID) {
+                    continue;
+                }
+                int[] rows = new int[size];
+                for (int row = 0; row < size; row++) {
+                    rows[row] = row;
+                }
+                IndexSort.sort(rows, (a, b) -> unsorted.compare(sort, a, unsorted, b));
+                ByteBuffer order = allocator.apply(Math.max(size, 1) * Integer.BYTES);
+                for (int position = 0; position < size; position++) {
+                    order.putInt(position << 2, rows[position]);
+                }
+                orders.put(sort, order);
+            }
+            return unsorted;
+        }
+
+        private int next(long id) {
+            if (size > 0 && id <= ids.buffer.getLong((size - 1) << 3)) {
+                throw new IllegalArgumentException("Rows must be added in ascending id order, got " + id + " after "
+                        + ids.buffer.getLong((size - 1) << 3));
+            }
+            int row = size++;
+            for (Column column : columns) {
+                column.ensure(size);
+            }
+            ids.buffer.putLong(row << 3, id);
+            return row;
+        }
+    }
+
+    /**
+     * Fixed-width column that grows by half again whenever a row does not fit.
+     */
+    private static final class Column {
+
+        private final IntFunction<ByteBuffer> allocator;
+        private final int width;
+        private ByteBuffer buffer;
+
+        private Column(IntFunction<ByteBuffer> allocator, int width, int rows) {
+            this.allocator = allocator;
+            this.width = width;
+            this.buffer = allocator.apply(Math.multiplyExact(rows, width));
+        }
+
+        private void ensure(int rows) {
+            int needed = Math.multiplyExact(rows, width);
+            if (needed <= buffer.capacity()) {
+                return;
+            }
+            ByteBuffer grown = allocator.apply(Math.max(needed, (int) Math.min(Integer.MAX_VALUE, buffer.capacity() * 3L / 2)));
+            grown.put(0, buffer, 0, buffer.capacity());
+            buffer = grown;
+        }
+    }
+}
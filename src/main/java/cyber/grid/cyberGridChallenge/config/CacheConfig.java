@@ -0,0 +1,88 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Configuration
+// Caching wraps transactions, so a cache hit never begins one (and never takes a connection)
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String EXPENSIVE_PRODUCTS_CACHE = "expensiveProducts";
+    public static final String PRODUCT_COUNT_CACHE = "productCount";
+
+    @Value("${app.cache.products.max-size:10000}")
+    private long productsMaxSize;
+
+    @Value("${app.cache.products.ttl:10m}")
+    private Duration productsTtl;
+
+    @Value("${app.cache.expensive-products.max-size:500}")
+    private long expensiveProductsMaxSize;
+
+    @Value("${app.cache.expensive-products.ttl:5m}")
+    private Duration expensiveProductsTtl;
+
+    @Value("${app.cache.product-count.ttl:30s}")
+    private Duration productCountTtl;
+
+    @Value("${app.cache.refresh.stale-while-revalidate:30s}")
+    private Duration staleWhileRevalidate;
+
+    @Value("${app.cache.refresh.early-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    /**
+     * Per-node Caffeine caches, each bounded by size and TTL. Stats are recorded so
+     * Actuator publishes cache.gets (hit/miss), cache.evictions and cache.size.
+     * <p>
+     * Loads are single-flight and entries are reloaded in the background on the application task executor:
+     * early (XFetch) while fresh, or when read within stale-while-revalidate after their TTL, which is served
+     * the stale entry meanwhile. An entry not read again within that period expires as before.
+     */
+    @Bean
+    public CacheManager cacheManager(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor refreshExecutor,
+                                     MeterRegistry meterRegistry) {
+        Map<String, Duration> ttls = Map.of(PRODUCTS_CACHE, productsTtl, EXPENSIVE_PRODUCTS_CACHE, expensiveProductsTtl,
+                PRODUCT_COUNT_CACHE, productCountTtl);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new RefreshAheadCaffeineCache(name, cache, ttls.get(name), earlyRefreshBeta, refreshExecutor, meterRegistry);
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(productsMaxSize)
+                .expireAfterWrite(productsTtl.plus(staleWhileRevalidate))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(EXPENSIVE_PRODUCTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(expensiveProductsMaxSize)
+                .expireAfterWrite(expensiveProductsTtl.plus(staleWhileRevalidate))
+                .recordStats()
+                .build());
+        // One entry: the active count, when app.count.mode=cached
+        cacheManager.registerCustomCache(PRODUCT_COUNT_CACHE, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(productCountTtl.plus(staleWhileRevalidate))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,150 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource that hands out at most maxConcurrency connections at a time through a fair semaphore.
+ * Callers beyond that queue in arrival order for up to maxWait; the permit is returned when the
+ * connection is closed.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    private volatile Timer waitTimer;
+    private volatile Counter timeouts;
+
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, String name, int maxConcurrency, Duration maxWait) {
+        super(targetDataSource);
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(obtainTargetDataSource()::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Callers currently waiting for a permit.
+     */
+    public int getQueueDepth() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Connections currently handed out.
+     */
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("pool", name);
+        Gauge.builder("db.limiter.queue.depth", this, ConcurrencyLimitingDataSource::getQueueDepth)
+                .tags(tags).description("Callers waiting for a database connection permit").register(registry);
+        Gauge.builder("db.limiter.active", this, ConcurrencyLimitingDataSource::getActive)
+                .tags(tags).description("Database connection permits in use").register(registry);
+        Gauge.builder("db.limiter.max", this, dataSource -> dataSource.maxConcurrency)
+                .tags(tags).description("Database connection permits available in total").register(registry);
+        waitTimer = Timer.builder("db.limiter.wait")
+                .tags(tags).description("Time spent waiting for a database connection permit").register(registry);
+        timeouts = Counter.builder("db.limiter.timeouts")
+                .tags(tags).description("Callers that gave up waiting for a database connection permit").register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", ex);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (!acquired) {
+            Counter counter = timeouts;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new SQLTransientConnectionException("Timed out after " + maxWait + " waiting for a database connection permit ("
+                    + getQueueDepth() + " callers waiting, " + maxConcurrency + " permits)");
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited connection [" + target + "]";
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,48 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.db.limiter.enabled", havingValue = "true")
+public class DataSourceLimiterConfig {
+
+    /**
+     * Wraps each Hikari pool in a fair limiter sized to the pool, so request bursts (thousands of virtual
+     * threads) wait their turn for up to max-wait instead of failing at Hikari's connection-timeout.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            @Value("${app.db.limiter.max-wait:60s}") Duration maxWait) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    return new ConcurrencyLimitingDataSource(hikariDataSource, beanName,
+                            hikariDataSource.getMaximumPoolSize(), maxWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Publishes db.limiter.queue.depth, db.limiter.active, db.limiter.wait and db.limiter.timeouts.
+     */
+    @Bean
+    public MeterBinder concurrencyLimitingDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitingDataSource.class::isInstance)
+                .map(ConcurrencyLimitingDataSource.class::cast)
+                .forEach(dataSource -> dataSource.bindTo(registry));
+    }
+}
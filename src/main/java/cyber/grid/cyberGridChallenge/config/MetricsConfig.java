@@ -0,0 +1,42 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import cyber.grid.cyberGridChallenge.metrics.ProductMetricsAspect;
+import cyber.grid.cyberGridChallenge.metrics.RequestStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.instrumentation.enabled", havingValue = "true")
+public class MetricsConfig {
+
+    @Value("${app.metrics.percentile-histogram:true}")
+    private boolean percentileHistogram;
+
+    /**
+     * Publishes product.service and product.repository timers and product.repository.rows.
+     */
+    @Bean
+    public ProductMetricsAspect productMetricsAspect(MeterRegistry registry) {
+        return new ProductMetricsAspect(registry, percentileHistogram);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.metrics.statements-per-request.enabled", havingValue = "true", matchIfMissing = true)
+    public RequestStatementCounter requestStatementCounter(MeterRegistry registry) {
+        return new RequestStatementCounter(registry, percentileHistogram);
+    }
+
+    /**
+     * Registers the statement counter with Hibernate; the same bean counts and, as a filter, scopes counts to a request.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.metrics.statements-per-request.enabled", havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer requestStatementCounterCustomizer(RequestStatementCounter requestStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatementCounter);
+    }
+}
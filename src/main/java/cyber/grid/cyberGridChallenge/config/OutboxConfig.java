@@ -0,0 +1,33 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cyber.grid.cyberGridChallenge.outbox.FileProductEventSink;
+import cyber.grid.cyberGridChallenge.outbox.InMemoryProductEventSink;
+import cyber.grid.cyberGridChallenge.outbox.ProductEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Stand-in sink for the outbox relay, chosen by app.outbox.sink: memory (the latest events in memory) or
+     * file (appended to app.outbox.file.path as NDJSON). Defining another ProductEventSink bean replaces it.
+     */
+    @Bean
+    @ConditionalOnMissingBean(ProductEventSink.class)
+    public ProductEventSink productEventSink(@Value("${app.outbox.sink:memory}") String sink,
+                                             @Value("${app.outbox.memory.capacity:10000}") int capacity,
+                                             @Value("${app.outbox.file.path:product-events.ndjson}") Path path,
+                                             ObjectMapper objectMapper) {
+        return switch (sink) {
+            case "memory" -> new InMemoryProductEventSink(capacity);
+            case "file" -> new FileProductEventSink(objectMapper, path);
+            default -> throw new IllegalArgumentException("Unknown app.outbox.sink: " + sink);
+        };
+    }
+}
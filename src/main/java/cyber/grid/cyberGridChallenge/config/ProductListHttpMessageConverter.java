@@ -0,0 +1,142 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductListDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Writes {@link ProductListDTO} responses straight to a streaming generator with field names encoded once,
+ * instead of through ObjectMapper's reflective bean serializers. Null fields are left out. Prices and timestamps
+ * are formatted into buffers reused for the whole response, so rows cost no allocation beyond the generator's own.
+ */
+public class ProductListHttpMessageConverter extends AbstractHttpMessageConverter<ProductListDTO> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(ProductListDTO.MEDIA_TYPE);
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializableString NEXT = new SerializedString("next");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString UPDATED_ON = new SerializedString("updatedOn");
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public ProductListHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return ProductListDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected ProductListDTO readInternal(@NonNull Class<? extends ProductListDTO> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product lists are response-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull ProductListDTO list, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        write(list, outputMessage.getBody());
+    }
+
+    /**
+     * Writes the list as UTF-8 JSON and flushes, leaving the stream open.
+     */
+    public void write(ProductListDTO list, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            Scratch scratch = new Scratch();
+            generator.writeStartObject();
+            generator.writeFieldName(CONTENT);
+            generator.writeStartArray();
+            List<ProductDTO> content = list.getContent();
+            if (content != null) {
+                for (ProductDTO product : content) {
+                    writeProduct(generator, product, scratch);
+                }
+            }
+            generator.writeEndArray();
+            writeString(generator, NEXT_CURSOR, list.getNextCursor());
+            writeString(generator, NEXT, list.getNext());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeProduct(JsonGenerator generator, ProductDTO product, Scratch scratch) throws IOException {
+        generator.writeStartObject();
+        if (product.getId() != null) {
+            generator.writeFieldName(ID);
+            generator.writeNumber(product.getId());
+        }
+        writeString(generator, NAME, product.getName());
+        writeString(generator, DESCRIPTION, product.getDescription());
+        Money price = product.getPrice();
+        if (price != null) {
+            generator.writeFieldName(PRICE);
+            generator.writeNumber(scratch.chars, 0, price.format(scratch.chars));
+        }
+        if (product.getStatus() != null) {
+            writeString(generator, STATUS, product.getStatus().name());
+        }
+        if (product.getVersion() != null) {
+            generator.writeFieldName(VERSION);
+            generator.writeNumber(product.getVersion());
+        }
+        LocalDateTime updatedOn = product.getUpdatedOn();
+        if (updatedOn != null) {
+            generator.writeFieldName(UPDATED_ON);
+            // Same ISO-8601 form as Jackson's LocalDateTime serializer
+            scratch.text.setLength(0);
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(updatedOn, scratch.text);
+            scratch.text.getChars(0, scratch.text.length(), scratch.chars, 0);
+            generator.writeString(scratch.chars, 0, scratch.text.length());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * Formatting buffers shared by the rows of one response.
+     */
+    private static final class Scratch {
+        private final char[] chars = new char[64];
+        private final StringBuilder text = new StringBuilder(64);
+    }
+}
@@ -0,0 +1,137 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Caffeine cache that keeps hot keys from ever missing all at once. Loads through {@link #get(Object, Callable)}
+ * are single-flight: concurrent callers of a missing key wait for one loader. Entries are fresh for freshFor and
+ * then, until the native cache expires them, served stale while one background load replaces them
+ * (stale-while-revalidate). A fresh entry may also be reloaded early, with a probability that grows as it ages
+ * and with how long loads take (XFetch), so the keys read most are usually reloaded before they turn stale.
+ * <p>
+ * A background load only replaces the value it started from, so an entry evicted or rewritten meanwhile is
+ * never overwritten with what may be an older read. Plain lookups without a loader treat stale entries as absent.
+ */
+@Slf4j
+public class RefreshAheadCaffeineCache extends CaffeineCache {
+
+    public static final String REFRESHES = "cache.refreshes";
+
+    // Weight of the latest load in the moving average of load times
+    private static final double LOAD_TIME_WEIGHT = 0.2;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+    private final long freshForNanos;
+    private final double earlyRefreshBeta;
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private volatile double loadNanos;
+
+    /**
+     * @param cache native cache, which must expire entries after write, no sooner than freshFor plus the stale period
+     * @param earlyRefreshBeta scales how early fresh entries are reloaded; 0 disables early reloads
+     */
+    public RefreshAheadCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                     Duration freshFor, double earlyRefreshBeta, Executor refreshExecutor,
+                                     MeterRegistry meterRegistry) {
+        super(name, cache, false);
+        if (cache.policy().expireAfterWrite().isEmpty()) {
+            throw new IllegalArgumentException("Cache " + name + " must expire after write");
+        }
+        this.cache = cache;
+        this.freshForNanos = freshFor.toNanos();
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = cache.getIfPresent(key);
+        if (value == null) {
+            // Caffeine runs one load per key; the other callers block until it completes
+            return (T) cache.get(key, k -> load(k, valueLoader));
+        }
+        long age = ageNanos(key);
+        if (age >= freshForNanos) {
+            refresh(key, value, valueLoader, "stale");
+        } else if (refreshEarly(age)) {
+            refresh(key, value, valueLoader, "early");
+        }
+        return (T) value;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        return value != null && ageNanos(key) >= freshForNanos ? null : value;
+    }
+
+    /**
+     * XFetch: reload when age - loadTime * beta * ln(random) reaches the fresh period.
+     */
+    private boolean refreshEarly(long age) {
+        if (earlyRefreshBeta <= 0 || loadNanos <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return age - loadNanos * earlyRefreshBeta * Math.log(random) >= freshForNanos;
+    }
+
+    private void refresh(Object key, Object current, Callable<?> valueLoader, String reason) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        meterRegistry.counter(REFRESHES, "cache", getName(), "reason", reason).increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object fresh = load(key, valueLoader);
+                    if (fresh != null && cache.asMap().replace(key, current, fresh)) {
+                        log.debug("Refreshed {} entry {} ({})", getName(), key, reason);
+                    }
+                } catch (RuntimeException ex) {
+                    log.debug("Refresh of {} entry {} failed; serving the cached value until it expires", getName(), key, ex);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.remove(key);
+            log.warn("Could not schedule refresh of {} entry {}", getName(), key, ex);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        long elapsed = System.nanoTime() - start;
+        double average = loadNanos;
+        loadNanos = average <= 0 ? elapsed : average + LOAD_TIME_WEIGHT * (elapsed - average);
+        return value;
+    }
+
+    private long ageNanos(Object key) {
+        return cache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(key))
+                .map(Duration::toNanos)
+                .orElse(Long.MAX_VALUE);
+    }
+}
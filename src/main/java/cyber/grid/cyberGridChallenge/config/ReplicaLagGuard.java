@@ -0,0 +1,92 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Pins a client's reads to the primary while its own writes may not have reached the replicas yet: for the
+ * whole of a write request (POST, PUT, PATCH, DELETE) and for requests arriving within the read-your-writes
+ * window after one. Clients are told apart by the client header, or by remote address when it is absent.
+ * Recent writers are remembered per instance only.
+ */
+public class ReplicaLagGuard extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final String clientHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaLagGuard(Duration readYourWritesWindow, String clientHeader, long maxClients) {
+        this(readYourWritesWindow, clientHeader, maxClients, Ticker.systemTicker());
+    }
+
+    ReplicaLagGuard(Duration readYourWritesWindow, String clientHeader, long maxClients, Ticker ticker) {
+        this.clientHeader = clientHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(maxClients)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Whether reads on the current thread must go to the primary.
+     */
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * Runs reads on the current thread against the primary, inside or outside a request, then restores the
+     * thread's previous setting. Only connections taken while they run are affected.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        PRIMARY_REQUIRED.set(write || recentWriters.getIfPresent(client) != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+            if (write) {
+                // Starts the window once the write has committed and the client can see its response
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,115 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Primary plus read replicas. The application DataSource hands out primary connections, except that a connection
+ * marked read-only before first use (as in @Transactional(readOnly = true)) comes from a replica chosen by
+ * {@link ReplicaRoutingDataSource}. Liquibase always migrates the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    static final String REPLICA_DATA_SOURCE_PREFIX = "replicaDataSource";
+
+    /**
+     * Registers a Hikari pool bean per app.datasource.routing.replica-urls entry, configured like the primary
+     * (spring.datasource.hikari.*) but read-only. As beans they get the connection limiter, pool metrics and
+     * a health check like the primary.
+     */
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor replicaDataSourceRegistrar(Environment environment) {
+        return registry -> {
+            List<String> urls = replicaUrls(environment);
+            for (int i = 0; i < urls.size(); i++) {
+                String beanName = REPLICA_DATA_SOURCE_PREFIX + (i + 1);
+                String url = urls.get(i);
+                registry.registerBeanDefinition(beanName, BeanDefinitionBuilder
+                        .genericBeanDefinition(HikariDataSource.class, () -> replicaPool(environment, beanName, url))
+                        .setDestroyMethodName("close")
+                        .getBeanDefinition());
+            }
+        };
+    }
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+            @Value("${app.datasource.routing.read-your-writes-window:5s}") Duration readYourWritesWindow,
+            @Value("${app.datasource.routing.client-header:X-Client-Id}") String clientHeader,
+            @Value("${app.datasource.routing.max-tracked-clients:100000}") long maxTrackedClients) {
+        return new ReplicaLagGuard(readYourWritesWindow, clientHeader, maxTrackedClients);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary, ReplicaLagGuard replicaLagGuard,
+                                 BeanFactory beanFactory, Environment environment,
+                                 @Value("${app.datasource.routing.selection:round-robin}") ReplicaRoutingDataSource.Selection selection) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        IntStream.rangeClosed(1, replicaUrls(environment).size())
+                .mapToObj(i -> REPLICA_DATA_SOURCE_PREFIX + i)
+                .forEach(name -> replicas.put(name, beanFactory.getBean(name, DataSource.class)));
+
+        // Lazy connections defer the pick until the first statement, after the transaction has marked them read-only
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas, selection, replicaLagGuard));
+        return dataSource;
+    }
+
+    private static List<String> replicaUrls(Environment environment) {
+        return Binder.get(environment)
+                .bind("app.datasource.routing.replica-urls", Bindable.listOf(String.class))
+                .orElse(List.of())
+                .stream()
+                .filter(url -> !url.isBlank())
+                .toList();
+    }
+
+    private static HikariDataSource replicaPool(Environment environment, String poolName, String url) {
+        // Like the primary, the pool starts on first use, so a replica that is down does not stop startup
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(environment.getProperty("app.datasource.routing.replica-username",
+                environment.getProperty("spring.datasource.username", "")));
+        dataSource.setPassword(environment.getProperty("app.datasource.routing.replica-password",
+                environment.getProperty("spring.datasource.password", "")));
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
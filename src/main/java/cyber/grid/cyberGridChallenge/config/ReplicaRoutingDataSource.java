@@ -0,0 +1,88 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target for read-only connections: picks a replica pool round-robin or by fewest connections in use
+ * (including callers queued for one), or the primary while the {@link ReplicaLagGuard} requires it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    private final List<String> replicaNames;
+    private final Map<String, DataSource> replicas;
+    private final Selection selection;
+    private final ReplicaLagGuard lagGuard;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Selection selection,
+                                    ReplicaLagGuard lagGuard) {
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.replicas = Map.copyOf(replicas);
+        this.selection = selection;
+        this.lagGuard = lagGuard;
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaNames.isEmpty() || lagGuard.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        // Starting the scan at the round-robin position spreads ties instead of always picking the first replica
+        int start = Math.floorMod(next.getAndIncrement(), replicaNames.size());
+        if (selection == Selection.ROUND_ROBIN) {
+            return replicaNames.get(start);
+        }
+        String leastLoaded = null;
+        int lowestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicaNames.size(); i++) {
+            String name = replicaNames.get((start + i) % replicaNames.size());
+            int load = load(replicas.get(name));
+            if (load < lowestLoad) {
+                leastLoaded = name;
+                lowestLoad = load;
+            }
+        }
+        return leastLoaded;
+    }
+
+    /**
+     * Connections in use plus callers waiting for one, from the limiter when the pool has one, else from Hikari.
+     */
+    static int load(DataSource dataSource) {
+        if (dataSource instanceof ConcurrencyLimitingDataSource limited) {
+            return limited.getActive() + limited.getQueueDepth();
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                if (pool != null) {
+                    return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+                }
+            }
+        } catch (SQLException ex) {
+            // Unknown load; treat the pool as idle
+        }
+        return 0;
+    }
+}
@@ -1,11 +1,20 @@
 package cyber.grid.cyberGridChallenge.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import cyber.grid.cyberGridChallenge.dto.ProductSchema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 
+import java.util.List;
+
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -21,4 +30,22 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    /**
+     * CBOR for Accept: application/cbor or the versioned product media type, configured like the JSON mapper
+     * (Spring Boot's builder) so both encodings carry the same fields.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        MappingJackson2CborHttpMessageConverter converter = new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_CBOR, MediaType.parseMediaType(ProductSchema.CBOR_MEDIA_TYPE)));
+        return converter;
+    }
+
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson, which would otherwise claim the +json media type
+        converters.add(0, new ProductListHttpMessageConverter());
+    }
+}
@@ -1,21 +1,52 @@
 package cyber.grid.cyberGridChallenge.controller;
 
+import cyber.grid.cyberGridChallenge.dto.BulkResultDTO;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.ProductBatchDTO;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangePageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
+import cyber.grid.cyberGridChallenge.dto.ProductBulkUpdateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductImportResultDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductListDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.service.ProductChangeFeedService;
+import cyber.grid.cyberGridChallenge.service.ProductExportService;
+import cyber.grid.cyberGridChallenge.service.ProductImportService;
+import cyber.grid.cyberGridChallenge.service.ProductPriceRangeService;
+import cyber.grid.cyberGridChallenge.service.ProductSearchService;
 import cyber.grid.cyberGridChallenge.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
-import org.springframework.data.domain.Page;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.springframework.data.domain.PageRequest;
 
 @RestController
@@ -24,7 +55,14 @@ import org.springframework.data.domain.PageRequest;
 @Tag(name = "Product Management", description = "APIs for managing products")
 public class ProductController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductPriceRangeService productPriceRangeService;
+    private final ProductSearchService productSearchService;
+    private final ProductChangeFeedService productChangeFeedService;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Create a new product with the provided details")
@@ -33,35 +71,179 @@ public class ProductController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve all active products with pagination and sorting")
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(
+    @Operation(summary = "Get all products", description = "Retrieve all active products with pagination and sorting. "
+            + "Use paging=cursor (or pass a cursor) for keyset pagination without a total count. "
+            + "Offset pages carry an ETag and answer If-None-Match with 304 Not Modified.")
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "ASC") String direction,
+            @Parameter(description = "Pagination mode: offset or cursor") @RequestParam(defaultValue = "offset") String paging,
+            @Parameter(description = "Opaque continuation token from a previous cursor page") @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        return listProducts(page, size, sort, direction, paging, cursor, request, "",
+                cursorPage -> cursorPage, products -> products);
+    }
+
+    @GetMapping(produces = ProductListDTO.MEDIA_TYPE)
+    @Operation(summary = "Get all products (compact)", description = "Same listing as Get all products, negotiated with "
+            + "Accept: " + ProductListDTO.MEDIA_TYPE + ". The body holds only the rows and a link to the next page "
+            + "(plus its cursor in cursor mode), without page metadata or null fields, and is written by a streaming serializer.")
+    public ResponseEntity<ProductListDTO> getProductList(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sort,
-            @RequestParam(defaultValue = "ASC") String direction
+            @RequestParam(defaultValue = "ASC") String direction,
+            @Parameter(description = "Pagination mode: offset or cursor") @RequestParam(defaultValue = "offset") String paging,
+            @Parameter(description = "Opaque continuation token from a previous cursor page") @RequestParam(required = false) String cursor,
+            WebRequest request
     ) {
-        // Note: Using explicit @RequestParam instead of @ParameterObject Pageable due to Swagger UI issues
-        // Standard approach would be: @ParameterObject Pageable pageable (no manual Pageable creation needed)
-        Sort sortOrder = Sort.by(Sort.Direction.fromString(direction), sort);
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
-    } 
-  
+        // Distinct ETag from the default representation's, since the bodies differ
+        return listProducts(page, size, sort, direction, paging, cursor, request, "-compact",
+                cursorPage -> {
+                    String nextCursor = cursorPage.isHasNext() ? cursorPage.getNextCursor() : null;
+                    return new ProductListDTO(cursorPage.getContent(), nextCursor,
+                            nextCursor == null ? null : nextLink("cursor", nextCursor));
+                },
+                products -> new ProductListDTO(products.getContent(), null,
+                        products.hasNext() ? nextLink("page", String.valueOf(page + 1)) : null));
+    }
+
+    /**
+     * Looks up the listing both representations render, a keyset page in cursor mode and an offset page
+     * otherwise, and answers with the body the representation makes of it. Offset pages are tagged with their
+     * ETag plus the suffix, and null is returned when the client's copy is still current.
+     */
+    private <T> ResponseEntity<T> listProducts(int page, int size, String sort, String direction, String paging,
+                                               String cursor, WebRequest request, String eTagSuffix,
+                                               Function<CursorPageDTO<ProductDTO>, T> cursorBody,
+                                               Function<CountedPage<ProductDTO>, T> pageBody) {
+        T body;
+        if (cursor != null || "cursor".equalsIgnoreCase(paging)) {
+            body = cursorBody.apply(productService.getProductsByCursor(sort, Sort.Direction.fromString(direction), cursor, size));
+        } else {
+            // Note: Using explicit @RequestParam instead of @ParameterObject Pageable due to Swagger UI issues
+            // Standard approach would be: @ParameterObject Pageable pageable (no manual Pageable creation needed)
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sort));
+            CountedPage<ProductDTO> products = productService.getAllProducts(pageable);
+            if (request.checkNotModified(pageETag(products) + eTagSuffix)) {
+                return null;
+            }
+            body = pageBody.apply(products);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Search active products by relevance. mode=text matches words in "
+            + "name and description (quoted phrases, OR and -exclusions supported); mode=name matches name prefixes and "
+            + "similarly spelled names.")
+    public ResponseEntity<Slice<ProductDTO>> searchProducts(
+            @Parameter(description = "Search query", example = "wireless mouse") @RequestParam String q,
+            @Parameter(description = "Matching mode: text or name") @RequestParam(defaultValue = "text") String mode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productSearchService.searchProducts(q, mode, page, size));
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
-    public ResponseEntity<ProductDTO> getProductById(@Parameter(description = "Product ID") @PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID. The response carries "
+            + "an ETag and Last-Modified, and If-None-Match / If-Modified-Since are answered with 304 Not Modified.")
+    public ResponseEntity<ProductDTO> getProductById(@Parameter(description = "Product ID") @PathVariable Long id,
+                                                     WebRequest request) {
+        // Usually served from the product cache, which makes it cheaper than a separate version lookup
+        ProductDTO product = productService.getProductById(id);
+        if (product.getUpdatedOn() != null
+                && request.checkNotModified(productETag(product), epochMillis(product.getUpdatedOn()))) {
+            return null;
+        }
+        return ResponseEntity.ok(product);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieve many active products in one request, in the order "
+            + "of the ids given. Ids not found (or deleted) are listed in notFound. Uncached products are loaded with one query.")
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs", example = "1,2,3") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/batch/get")
+    @Operation(summary = "Get products by IDs (body)", description = "Same as Get products by IDs, for id lists too long for a URL")
+    public ResponseEntity<ProductBatchDTO> getProductsByIdsFromBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @GetMapping("/expensive")
-    @Operation(summary = "Get expensive products", description = "Retrieve products with price above the specified minimum")
-    public ResponseEntity<List<ProductDTO>> getExpensiveProducts(
-            @Parameter(description = "Minimum price threshold", example = "100.0") @RequestParam Double minPrice) {
-        return ResponseEntity.ok(productService.getExpensiveProducts(minPrice));
+    @Operation(summary = "Get expensive products", description = "Retrieve active products priced above the minimum "
+            + "(and up to an optional maximum), ordered by price with keyset pagination")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getExpensiveProducts(
+            @Parameter(description = "Minimum price threshold (exclusive)", example = "100.0") @RequestParam Money minPrice,
+            @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) Money maxPrice,
+            @Parameter(description = "Price order: ASC or DESC") @RequestParam(defaultValue = "ASC") String direction,
+            @Parameter(description = "Opaque continuation token from a previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productPriceRangeService.getProductsByPrice(
+                minPrice, maxPrice, Sort.Direction.fromString(direction), cursor, size));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get product changes", description = "Retrieve products created, updated or soft deleted after a "
+            + "high-water mark, in commit order, with keyset pagination. Pass the cursor of the previous page, or none to "
+            + "start at the beginning; wait > 0 long-polls until a change arrives or the wait elapses.")
+    public ResponseEntity<ProductChangePageDTO> getProductChanges(
+            @Parameter(description = "High-water mark returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @Parameter(description = "Seconds to wait for a change when there is none yet") @RequestParam(defaultValue = "0") long wait)
+            throws InterruptedException {
+        if (wait > 0) {
+            return ResponseEntity.ok(productChangeFeedService.awaitChanges(cursor, size, Duration.ofSeconds(wait)));
+        }
+        return ResponseEntity.ok(productChangeFeedService.getChanges(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export products", description = "Stream all active products as newline-delimited JSON, optionally gzip-encoded")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Gzip-encode the response body") @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                productExportService.exportActiveProducts(gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                productExportService.exportActiveProducts(outputStream);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.ndjson");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Import products", description = "Stream NDJSON or CSV rows into the catalog via COPY; invalid rows are reported, not fatal")
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        InputStream input = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        return ResponseEntity.ok(productImportService.importProducts(input, format));
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a product", description = "Update an existing product with the provided details")
+    @Operation(summary = "Update a product", description = "Update an existing product with the provided details. "
+            + "Include the version last read to get 409 Conflict instead of overwriting a concurrent change.")
     public ResponseEntity<ProductDTO> updateProduct(
             @Parameter(description = "Product ID") @PathVariable Long id, 
             @Valid @RequestBody ProductUpdateDTO productUpdateDTO) {
@@ -70,8 +252,67 @@ public class ProductController {
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a product", description = "Soft delete a product by setting its status to DELETED")
-    public ResponseEntity<Void> deleteProduct(@Parameter(description = "Product ID") @PathVariable Long id) {
-        productService.deleteProduct(id);
+    public ResponseEntity<Void> deleteProduct(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Version last read; 409 Conflict if the product has changed since") @RequestParam(required = false) Long version) {
+        productService.deleteProduct(id, version);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create products in bulk", description = "Create many products in batched inserts and return a per-item result report")
+    public ResponseEntity<BulkResultDTO> createProducts(@RequestBody List<ProductCreateDTO> productCreateDTOs) {
+        return ResponseEntity.ok(productService.createProducts(productCreateDTOs));
+    }
+
+    @PutMapping("/batch")
+    @Operation(summary = "Update products in bulk", description = "Update many products in set-based statements and return a per-item result report")
+    public ResponseEntity<BulkResultDTO> updateProducts(@RequestBody List<ProductBulkUpdateDTO> productBulkUpdateDTOs) {
+        return ResponseEntity.ok(productService.updateProducts(productBulkUpdateDTOs));
+    }
+
+    @PostMapping("/batch/delete")
+    @Operation(summary = "Delete products in bulk", description = "Soft delete many products by id and return a per-item result report")
+    public ResponseEntity<BulkResultDTO> deleteProducts(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.deleteProducts(ids));
+    }
+
+    /**
+     * The current request's URL, still encoded, with one query parameter replaced by a value that needs no encoding.
+     */
+    private static String nextLink(String parameter, String value) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(parameter, value)
+                .build(true)
+                .toUriString();
+    }
+
+    private static String productETag(ProductDTO product) {
+        return product.getId() + "-" + epochMicros(product.getUpdatedOn());
+    }
+
+    /**
+     * Digest of each row's id and last write time, in page order, and of the page's total unless it is a planner
+     * estimate, which moves with table statistics while no product changes. Taken from the page being sent, so
+     * the two always agree.
+     */
+    private static String pageETag(CountedPage<ProductDTO> products) {
+        StringBuilder state = new StringBuilder();
+        if (products.getCountMode() != ProductCountMode.ESTIMATED) {
+            state.append(products.getTotalElements());
+        }
+        for (ProductDTO product : products) {
+            state.append(';').append(product.getId()).append('-')
+                    .append(product.getUpdatedOn() == null ? "" : epochMicros(product.getUpdatedOn()));
+        }
+        return DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
 }
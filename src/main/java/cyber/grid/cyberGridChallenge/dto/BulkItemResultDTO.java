@@ -0,0 +1,20 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResultDTO {
+    private int index;
+
+    private Long id;
+
+    private BulkItemStatus status;
+
+    private String message;
+}
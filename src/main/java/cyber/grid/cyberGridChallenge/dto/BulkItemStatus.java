@@ -0,0 +1,11 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    CONFLICT,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,32 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkResultDTO {
+    private static final Set<BulkItemStatus> SUCCEEDED =
+            EnumSet.of(BulkItemStatus.CREATED, BulkItemStatus.UPDATED, BulkItemStatus.DELETED);
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BulkItemResultDTO> items;
+
+    public static BulkResultDTO of(List<BulkItemResultDTO> items) {
+        int succeeded = (int) items.stream()
+                .filter(item -> SUCCEEDED.contains(item.getStatus()))
+                .count();
+        return new BulkResultDTO(succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,40 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A page that also tells how its total was produced, serialized next to totalElements as countMode.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final ProductCountMode countMode;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, ProductCountMode countMode) {
+        super(content, pageable, total);
+        this.countMode = countMode;
+    }
+
+    public ProductCountMode getCountMode() {
+        return countMode;
+    }
+
+    @Override
+    public <U> CountedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CountedPage<>(getConvertedContent(converter), getPageable(), getTotalElements(), countMode);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CountedPage<?> other && countMode == other.countMode && super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), countMode);
+    }
+}
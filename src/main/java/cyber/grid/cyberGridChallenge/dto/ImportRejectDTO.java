@@ -0,0 +1,16 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRejectDTO {
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,18 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchDTO {
+    private List<ProductDTO> content;
+
+    private List<Long> notFound;
+}
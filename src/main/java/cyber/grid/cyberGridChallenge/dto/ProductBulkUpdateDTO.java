@@ -0,0 +1,40 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.money.MoneyType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkUpdateDTO {
+    @NotNull(message = "Id is required")
+    private Long id;
+
+    @NotBlank(message = "Name is required")
+    @Size(max = Product.NAME_MAX_LENGTH, message = "Name must be at most " + Product.NAME_MAX_LENGTH + " characters")
+    private String name;
+
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @Positive(message = "Price must be positive")
+    @DecimalMax(value = MoneyType.MAX_AMOUNT, message = "Price must be at most " + MoneyType.MAX_AMOUNT)
+    private Money price;
+
+    private ProductStatus status;
+
+    /** Expected current version; when set, the item only applies if the product still has it. */
+    private Long version;
+}
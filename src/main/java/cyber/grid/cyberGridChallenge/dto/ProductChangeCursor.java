@@ -0,0 +1,56 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Change feed position of a product write: the id of the transaction that wrote the row, then the product id.
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+public record ProductChangeCursor(long txid, long id) implements Comparable<ProductChangeCursor> {
+
+    /**
+     * Position before every write.
+     */
+    public static final ProductChangeCursor START = new ProductChangeCursor(-1, 0);
+
+    private static final Comparator<ProductChangeCursor> ORDER = Comparator
+            .comparingLong(ProductChangeCursor::txid)
+            .thenComparingLong(ProductChangeCursor::id);
+
+    private static final String PREFIX = "CHANGE|";
+
+    public String encode() {
+        String raw = PREFIX + txid + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductChangeCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor", ex);
+        }
+        if (!raw.startsWith(PREFIX)) {
+            throw new InvalidCursorException("Cursor was not issued by the change feed");
+        }
+        String[] parts = raw.substring(PREFIX.length()).split("\\|", -1);
+        try {
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new ProductChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Malformed cursor", ex);
+        }
+    }
+
+    @Override
+    public int compareTo(ProductChangeCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
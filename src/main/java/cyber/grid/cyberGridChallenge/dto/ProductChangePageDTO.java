@@ -0,0 +1,24 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of the change feed. The cursor is the high-water mark after the last change (or the one passed in when
+ * there were none), so it is always the position to poll from next.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangePageDTO {
+    private List<ProductChangeDTO> changes;
+
+    private boolean hasNext;
+
+    private String cursor;
+}
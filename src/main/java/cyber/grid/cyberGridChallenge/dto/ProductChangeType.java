@@ -0,0 +1,7 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
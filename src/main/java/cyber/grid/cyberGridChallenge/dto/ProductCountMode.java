@@ -0,0 +1,15 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+/**
+ * How the total of a page of products was produced (app.count.mode picks one of the first three).
+ */
+public enum ProductCountMode {
+    /** Counted for this page, or known from the page itself when it is the last one. */
+    EXACT,
+    /** Counted for an earlier page and kept until it expires or a write adds or removes products. */
+    CACHED,
+    /** The planner's row estimate, from table statistics; never scans the table. */
+    ESTIMATED,
+    /** The size of the catalog snapshot the page was read from. */
+    SNAPSHOT
+}
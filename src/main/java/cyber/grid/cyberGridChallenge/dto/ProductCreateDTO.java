@@ -5,10 +5,15 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.money.MoneyType;
 
 @Data
 @Builder
@@ -16,13 +21,15 @@ import cyber.grid.cyberGridChallenge.entity.ProductStatus;
 @AllArgsConstructor
 public class ProductCreateDTO {
     @NotBlank(message = "Name is required")
+    @Size(max = Product.NAME_MAX_LENGTH, message = "Name must be at most " + Product.NAME_MAX_LENGTH + " characters")
     private String name;
     
     private String description;
     
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    @DecimalMax(value = MoneyType.MAX_AMOUNT, message = "Price must be at most " + MoneyType.MAX_AMOUNT)
+    private Money price;
     
     private ProductStatus status;
 }
@@ -0,0 +1,44 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row of a page: sort field, direction, sort value and id.
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+public record ProductCursor(ProductSortField sortField, Sort.Direction direction, Object value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ProductCursor of(ProductSortField sortField, Sort.Direction direction, Product product) {
+        return new ProductCursor(sortField, direction, sortField.valueOf(product), product.getId());
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            ProductSortField sortField = ProductSortField.valueOf(parts[0]);
+            return new ProductCursor(sortField, Sort.Direction.valueOf(parts[1]),
+                    sortField.parseValue(parts[3]), Long.valueOf(parts[2]));
+        } catch (InvalidCursorException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Malformed cursor", ex);
+        }
+    }
+}
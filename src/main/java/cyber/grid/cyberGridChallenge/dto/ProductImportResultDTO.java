@@ -0,0 +1,24 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResultDTO {
+    private long received;
+
+    private long imported;
+
+    private long rejected;
+
+    private List<ImportRejectDTO> rejects;
+
+    private boolean rejectsTruncated;
+}
@@ -0,0 +1,26 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Compact product list response: the rows, a link to the next page (null on the last one) and, for cursor
+ * pages, the cursor it carries. Served for {@value #MEDIA_TYPE} with no page metadata.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductListDTO {
+    public static final String MEDIA_TYPE = "application/vnd.cybergrid.product-list+json";
+
+    private List<ProductDTO> content;
+
+    private String nextCursor;
+
+    private String next;
+}
@@ -0,0 +1,15 @@
+package cyber.grid.cyberGridChallenge.dto;
+
+/**
+ * Version of the product payloads (ProductDTO and the page and list wrappers around it) as binary clients see them.
+ * Adding a field keeps the version; renaming or removing one, or changing its type, bumps it and the media type.
+ */
+public final class ProductSchema {
+
+    public static final int VERSION = 1;
+
+    public static final String CBOR_MEDIA_TYPE = "application/vnd.cybergrid.product.v" + VERSION + "+cbor";
+
+    private ProductSchema() {
+    }
+}
@@ -1,9 +1,14 @@
 package cyber.grid.cyberGridChallenge.dto;
 
+import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.money.MoneyType;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,13 +20,18 @@ import lombok.NoArgsConstructor;
 @Builder
 public class ProductUpdateDTO {
     @NotBlank(message = "Name is required")
+    @Size(max = Product.NAME_MAX_LENGTH, message = "Name must be at most " + Product.NAME_MAX_LENGTH + " characters")
     private String name;
     
     private String description;
     
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    @DecimalMax(value = MoneyType.MAX_AMOUNT, message = "Price must be at most " + MoneyType.MAX_AMOUNT)
+    private Money price;
 
     private ProductStatus status;
+
+    /** Version the client last read; when given, the update is rejected with 409 if the product has changed since. */
+    private Long version;
 }
@@ -0,0 +1,8 @@
+package cyber.grid.cyberGridChallenge.exception;
+
+public class InvalidLookupException extends RuntimeException {
+
+    public InvalidLookupException(String message) {
+        super(message);
+    }
+}
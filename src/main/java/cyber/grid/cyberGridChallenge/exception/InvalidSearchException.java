@@ -0,0 +1,8 @@
+package cyber.grid.cyberGridChallenge.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
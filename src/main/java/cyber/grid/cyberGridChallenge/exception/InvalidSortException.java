@@ -0,0 +1,8 @@
+package cyber.grid.cyberGridChallenge.exception;
+
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package cyber.grid.cyberGridChallenge.exception;
+
+public class ProductConflictException extends RuntimeException {
+
+    public ProductConflictException(String message) {
+        super(message);
+    }
+
+    public ProductConflictException(Long id, Long expectedVersion, Long currentVersion) {
+        super("Product " + id + " was modified concurrently: expected version " + expectedVersion
+                + " but found " + currentVersion);
+    }
+}
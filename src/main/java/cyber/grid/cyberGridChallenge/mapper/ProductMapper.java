@@ -1,5 +1,6 @@
 package cyber.grid.cyberGridChallenge.mapper;
 
+import cyber.grid.cyberGridChallenge.dto.ProductBulkUpdateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
@@ -18,6 +19,10 @@ public interface ProductMapper {
 
     @org.mapstruct.Mapping(target = "status", defaultExpression = "java(cyber.grid.cyberGridChallenge.entity.ProductStatus.ACTIVE)")
     Product toEntity(ProductCreateDTO productCreateDTO);
+
+    Product toEntity(ProductBulkUpdateDTO productBulkUpdateDTO);
+
+    Product toEntity(ProductUpdateDTO productUpdateDTO);
     
     void updateFromDto(ProductUpdateDTO dto, @MappingTarget Product entity);
 }
@@ -0,0 +1,87 @@
+package cyber.grid.cyberGridChallenge.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every public call into the product services and the product repository, tagged by class and method,
+ * and records how many rows each repository call returned. Runs outermost so service timings include the
+ * cache and transaction interceptors.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ProductMetricsAspect {
+
+    public static final String SERVICE_TIMER = "product.service";
+    public static final String REPOSITORY_TIMER = "product.repository";
+    public static final String REPOSITORY_ROWS = "product.repository.rows";
+
+    private final MeterRegistry registry;
+    private final boolean percentileHistogram;
+
+    @Around("execution(public * cyber.grid.cyberGridChallenge.service.Product*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint, false);
+    }
+
+    /**
+     * Matches the repository bean rather than its interface so inherited JpaRepository methods are timed too.
+     */
+    @Around("bean(productRepository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, "ProductRepository", joinPoint, true);
+    }
+
+    private Object time(String name, String className, ProceedingJoinPoint joinPoint, boolean countRows) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            if (countRows) {
+                recordRows(method, result);
+            }
+            return result;
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry));
+        }
+    }
+
+    private void recordRows(String method, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+        DistributionSummary.builder(REPOSITORY_ROWS)
+                .tag("method", method)
+                .baseUnit("rows")
+                .register(registry)
+                .record(rows);
+    }
+}
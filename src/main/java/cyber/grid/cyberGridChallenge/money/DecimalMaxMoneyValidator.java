@@ -0,0 +1,30 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMax;
+
+/**
+ * Lets {@link DecimalMax} validate {@link Money}; registered through META-INF/services. Null is valid, as for
+ * the built-in types.
+ */
+public class DecimalMaxMoneyValidator implements ConstraintValidator<DecimalMax, Money> {
+
+    private Money max;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMax constraint) {
+        max = Money.valueOf(constraint.value());
+        inclusive = constraint.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int comparison = value.compareTo(max);
+        return inclusive ? comparison <= 0 : comparison < 0;
+    }
+}
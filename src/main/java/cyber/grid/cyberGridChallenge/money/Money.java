@@ -0,0 +1,139 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a whole number of cents, the scale of the DECIMAL(10,2) price column. Amounts are parsed from
+ * and formatted to their decimal digits directly, so they compare exactly and never pass through double; BigDecimal
+ * only appears where the JDBC driver hands over a numeric column.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+@Schema(type = "number", format = "decimal", example = "19.99")
+public record Money(long cents) implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final int MAX_FORMATTED_LENGTH = 24;
+    private static final long CENTS_PER_UNIT = 100;
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    /**
+     * Parses a decimal amount such as "19.99", "-5" or "1.5E2". Digits past the cents round half up, as
+     * they would when stored in the price column.
+     *
+     * @throws NumberFormatException if the text is not a decimal number
+     * @throws ArithmeticException   if the amount does not fit in a long number of cents
+     */
+    public static Money valueOf(String text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean point = false;
+        boolean digits = false;
+        for (; index < length; index++) {
+            char c = text.charAt(index);
+            if (c == '.' && !point) {
+                point = true;
+            } else if (c == 'e' || c == 'E') {
+                return valueOf(new BigDecimal(text));
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                int digit = c - '0';
+                if (!point) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), digit);
+                } else if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + digit;
+                    fractionDigits++;
+                } else if (fractionDigits == SCALE) {
+                    roundUp = digit >= 5;
+                    fractionDigits++;
+                }
+            } else {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), roundUp ? fraction + 1 : fraction);
+        return new Money(negative ? -cents : cents);
+    }
+
+    /**
+     * Converts a decimal amount, rounding digits past the cents half up.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public static Money valueOf(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * Formats the amount with exactly two decimals, e.g. "19.90".
+     */
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, format(buffer));
+    }
+
+    /**
+     * Writes the amount as {@link #toString()} does into the start of the buffer, which must hold at least
+     * {@link #MAX_FORMATTED_LENGTH} chars, and returns the number of chars written.
+     */
+    public int format(char[] buffer) {
+        // Division and remainder keep the sign, so Long.MIN_VALUE cents cannot overflow Math.abs
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        int remainder = (int) Math.abs(cents % CENTS_PER_UNIT);
+        int digits = 1;
+        for (long rest = units; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        int length = (cents < 0 ? 1 : 0) + digits + 1 + SCALE;
+        int position = length;
+        buffer[--position] = (char) ('0' + remainder % 10);
+        buffer[--position] = (char) ('0' + remainder / 10);
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+        if (cents < 0) {
+            buffer[--position] = '-';
+        }
+        return length;
+    }
+}
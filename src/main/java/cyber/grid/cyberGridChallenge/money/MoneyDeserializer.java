@@ -0,0 +1,43 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads an amount from a JSON number or string (as in CSV). Fractional numbers are parsed from their text rather
+ * than as a double, so "19.99" is exactly 1999 cents; binary decimals (CBOR decimal fractions) are taken as is.
+ */
+public class MoneyDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT && parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+            try {
+                return Money.valueOf(parser.getDecimalValue());
+            } catch (ArithmeticException ex) {
+                return (Money) context.handleWeirdNumberValue(Money.class, parser.getDecimalValue(), "not a valid amount");
+            }
+        }
+        String text = parser.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Money.valueOf(text);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            return (Money) context.handleWeirdStringValue(Money.class, text, "not a valid amount");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an amount as a JSON number with two decimals, formatted from its cents without
+ * an intermediate String. Binary formats get it as a decimal number (a CBOR decimal fraction).
+ */
+public class MoneySerializer extends StdSerializer<Money> {
+
+    public MoneySerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!generator.canWriteFormattedNumbers()) {
+            generator.writeNumber(value.toBigDecimal());
+            return;
+        }
+        char[] buffer = new char[Money.MAX_FORMATTED_LENGTH];
+        generator.writeNumber(buffer, 0, value.format(buffer));
+    }
+}
@@ -0,0 +1,93 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Maps {@link Money} to a NUMERIC(10,2) column. The driver reads and binds numerics as BigDecimal, so that is
+ * converted here once per row; the entity and everything above it only hold cents.
+ */
+public class MoneyType implements UserType<Money> {
+
+    public static final int PRECISION = 10;
+    /** Largest amount the price column holds, DECIMAL(PRECISION, SCALE). */
+    public static final String MAX_AMOUNT = "99999999.99";
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.NUMERIC;
+    }
+
+    @Override
+    public Class<Money> returnedClass() {
+        return Money.class;
+    }
+
+    @Override
+    public boolean equals(Money x, Money y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Money x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Money nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        BigDecimal amount = rs.getBigDecimal(position);
+        return amount == null ? null : Money.valueOf(amount);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Money value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.NUMERIC);
+        } else {
+            st.setBigDecimal(index, value.toBigDecimal());
+        }
+    }
+
+    @Override
+    public Money deepCopy(Money value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(Money value) {
+        return value;
+    }
+
+    @Override
+    public Money assemble(Serializable cached, Object owner) {
+        return (Money) cached;
+    }
+
+    @Override
+    public int getDefaultSqlPrecision(Dialect dialect, JdbcType jdbcType) {
+        return PRECISION;
+    }
+
+    @Override
+    public int getDefaultSqlScale(Dialect dialect, JdbcType jdbcType) {
+        return Money.SCALE;
+    }
+}
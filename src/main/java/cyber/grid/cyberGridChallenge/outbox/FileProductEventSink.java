@@ -0,0 +1,52 @@
+package cyber.grid.cyberGridChallenge.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stand-in sink that appends events to a local file as newline-delimited JSON, one object per event with the
+ * outbox id, productId, type, createdOn and the product payload.
+ */
+public class FileProductEventSink implements ProductEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileProductEventSink(ObjectMapper objectMapper, Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<ProductOutboxEvent> events) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ProductOutboxEvent event : events) {
+                    ObjectNode line = objectMapper.createObjectNode()
+                            .put("id", event.id())
+                            .put("productId", event.productId())
+                            .put("type", event.type().name())
+                            .put("createdOn", event.createdOn().toString());
+                    line.set("product", objectMapper.readTree(event.payload()));
+                    out.write(objectMapper.writeValueAsBytes(line));
+                    out.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing product events to " + path + " failed", ex);
+        }
+    }
+}
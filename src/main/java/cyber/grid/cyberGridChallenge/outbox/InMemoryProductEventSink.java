@@ -0,0 +1,37 @@
+package cyber.grid.cyberGridChallenge.outbox;
+
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in sink that keeps the most recent events in memory, for tests and local runs.
+ */
+public class InMemoryProductEventSink implements ProductEventSink {
+
+    private final int capacity;
+    private final Deque<ProductOutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryProductEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<ProductOutboxEvent> batch) {
+        for (ProductOutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Events published so far, oldest first, up to the capacity.
+     */
+    public synchronized List<ProductOutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,15 @@
+package cyber.grid.cyberGridChallenge.outbox;
+
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the product change events relayed from the outbox. Each claimed batch is published in id order
+ * while the claim is still uncommitted: returning normally removes the batch from the outbox, throwing leaves
+ * it there for the next run. Delivery is therefore at least once, and a sink should be idempotent by event id.
+ */
+public interface ProductEventSink {
+
+    void publish(List<ProductOutboxEvent> events);
+}
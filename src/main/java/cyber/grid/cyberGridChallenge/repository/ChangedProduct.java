@@ -0,0 +1,10 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.entity.Product;
+
+/**
+ * Row read by the change feed, with the position of its latest write.
+ */
+public record ChangedProduct(Product product, ProductChangeCursor position) {
+}
@@ -0,0 +1,12 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Product change event from the outbox. The payload is the product row as JSON, as of the write that
+ * added the event; its version orders events of one product.
+ */
+public record ProductOutboxEvent(Long id, Long productId, ProductChangeType type, String payload, LocalDateTime createdOn) {
+}
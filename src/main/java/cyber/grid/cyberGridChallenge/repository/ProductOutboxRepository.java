@@ -0,0 +1,79 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+public class ProductOutboxRepository {
+
+    // Events are built from the rows as this transaction sees them, so one statement covers any number of products
+    private static final String APPEND_SQL = """
+            INSERT INTO product_outbox (product_id, event_type, payload, created_on)
+            SELECT id, CASE WHEN status = 'DELETED' THEN 'DELETED' ELSE ? END,
+                   jsonb_build_object('id', id, 'name', name, 'description', description, 'price', price,
+                                      'status', status, 'version', version, 'updatedOn', updated_on),
+                   ?
+            FROM products
+            WHERE id = ANY(?)
+            ORDER BY id
+            """;
+
+    private static final String CLAIM_SQL = """
+            DELETE FROM product_outbox
+            WHERE id IN (SELECT id FROM product_outbox
+                         ORDER BY id
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id, product_id, event_type, payload, created_on
+            """;
+
+    private static final RowMapper<ProductOutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new ProductOutboxEvent(
+            rs.getLong("id"), rs.getLong("product_id"), ProductChangeType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"), rs.getTimestamp("created_on").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a change event for each of the given products, as they are in the current transaction, which must
+     * also hold the write itself. Products that are deleted by then get a DELETED event. Returns the events added.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int append(ProductChangeType type, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPEND_SQL);
+            ps.setString(1, type.name());
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(3, con.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Removes and returns up to limit of the oldest events. Events claimed by a concurrent relay are skipped
+     * rather than waited for; rolling back the current transaction puts the claimed events back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ProductOutboxEvent> claim(int limit) {
+        List<ProductOutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, EVENT_MAPPER, limit);
+        // RETURNING does not keep the subquery's order
+        return events.stream().sorted(Comparator.comparing(ProductOutboxEvent::id)).toList();
+    }
+}
@@ -0,0 +1,9 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.money.Money;
+
+/**
+ * Row touched by a set-based write, with the price before and after the statement.
+ */
+public record ProductPriceChange(Long id, Money previousPrice, Money price) {
+}
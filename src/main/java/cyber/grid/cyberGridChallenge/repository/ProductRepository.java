@@ -3,31 +3,48 @@ package cyber.grid.cyberGridChallenge.repository;
 import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * Finds a page of active products with sorting, excluding deleted products. No count query is issued;
+     * the service adds the total as app.count.mode says.
+     */
+    @Query(value = "SELECT * FROM products WHERE " + ACTIVE_PREDICATE, nativeQuery = true)
+    List<Product> findAllActive(Pageable pageable);
 
     /**
-     * Finds products with price above minimum threshold, excluding deleted products.
+     * Counts active products exactly, which reads every active row (or index entry).
      */
-    @Query(value = "SELECT * FROM products WHERE price > :minPrice AND status != :deletedStatus", nativeQuery = true)
-    List<Product> findExpensiveProducts(@Param("minPrice") BigDecimal minPrice, @Param("deletedStatus") String deletedStatus);
+    @Query(value = "SELECT count(*) FROM products WHERE " + ACTIVE_PREDICATE, nativeQuery = true)
+    long countActive();
 
     /**
-     * Finds all active products with pagination and sorting, excluding deleted products.
+     * Streams all active products in id order through a forward-only server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
      */
-    @Query(value = "SELECT * FROM products WHERE status != :deletedStatus", nativeQuery = true)
-    Page<Product> findAllActive(@Param("deletedStatus") String deletedStatus, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(value = "SELECT * FROM products WHERE " + ACTIVE_PREDICATE + " ORDER BY id", nativeQuery = true)
+    Stream<Product> streamAllActive();
 
     /**
      * Finds a product by ID that doesn't have the specified status.
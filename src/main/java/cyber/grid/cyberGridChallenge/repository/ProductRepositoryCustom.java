@@ -0,0 +1,124 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Active-row filter. Spelled as a literal, never a bind parameter, so the planner can match
+     * the partial indexes built on the same predicate.
+     */
+    String ACTIVE_PREDICATE = "status <> 'DELETED'";
+
+    /**
+     * Finds the next slice of products after the given keyset position, excluding deleted products.
+     * Uses a (sort column, id) row comparison instead of OFFSET and never issues a count query.
+     */
+    Slice<Product> findActiveSlice(ProductSortField sortField, Sort.Direction direction, ProductCursor after, int size);
+
+    /**
+     * Finds non-deleted products priced above minPrice and up to maxPrice (either bound may be null),
+     * ordered by (price, id) in the given direction and continuing after the keyset position if given.
+     */
+    List<Product> findActiveByPrice(Money minPrice, Money maxPrice, Sort.Direction direction,
+                                    ProductCursor after, int limit);
+
+    /**
+     * Finds the non-deleted products among the given ids with one id = ANY(?) statement per 1000 ids,
+     * in no particular order. Unknown and deleted ids are left out.
+     */
+    List<Product> findActiveByIds(Collection<Long> ids);
+
+    /**
+     * Estimates the number of non-deleted products from the planner's statistics (pg_class.reltuples scaled to
+     * the table's current size, times the selectivity of the active predicate) without reading any rows. Only as
+     * fresh as the last ANALYZE or autovacuum.
+     */
+    long estimateActive();
+
+    /**
+     * Reads every non-deleted product in id order through a forward-only cursor and hands each row to the action
+     * without keeping it, so a full scan holds no more than one fetch of rows in memory.
+     */
+    void forEachActive(Consumer<Product> action);
+
+    /**
+     * Finds products of any status, deleted ones included, written after the change position, in (change_txid, id)
+     * order. Only writes of transactions older than the oldest one still in progress are read, so no row can later
+     * commit behind the last position returned.
+     */
+    List<ChangedProduct> findChangedAfter(ProductChangeCursor after, int limit);
+
+    /**
+     * Finds the position of the latest write that findChangedAfter can read.
+     */
+    Optional<ProductChangeCursor> findLatestChange();
+
+    /**
+     * The oldest transaction id still in progress: every write by an older transaction has committed or rolled
+     * back, so a scan started afterwards sees all of them.
+     */
+    long findChangeHorizon();
+
+    /**
+     * Searches active products in relevance order (see {@link ProductSearchMode}), with id as tie-breaker.
+     * No count query is issued. Both modes consider a bounded candidate set: text search ranks the matches among
+     * the app.search.max-candidates best-scoring products of each query word (product_lexemes); name search the
+     * first app.search.max-candidates matches per match kind.
+     */
+    Slice<Product> searchActive(String query, ProductSearchMode mode, Pageable pageable);
+
+    /**
+     * Persists new products, flushing and clearing the persistence context every JDBC batch
+     * so inserts go out as batched statements and memory stays bounded.
+     */
+    List<Product> insertAll(List<Product> products);
+
+    /**
+     * Updates non-deleted products in set-based statements keyed by id. A null status keeps
+     * the current one; a non-null version only updates a row still at that version. Ids must be distinct.
+     * Returns only the rows that were actually updated.
+     */
+    List<ProductPriceChange> updateAll(List<Product> products, LocalDateTime updatedOn);
+
+    /**
+     * Soft deletes the given non-deleted products in set-based statements and returns the rows deleted.
+     */
+    List<ProductPriceChange> softDeleteAll(Collection<Long> ids, LocalDateTime updatedOn);
+
+    /**
+     * Updates a non-deleted product's name, description, price and (unless null) status in one statement and
+     * bumps its version. With an expected version the row is only written while it still has that version.
+     * Returns the written row, or empty when no row matched.
+     */
+    Optional<UpdatedProduct> updateIfCurrent(Product product, Long expectedVersion, LocalDateTime updatedOn);
+
+    /**
+     * Soft deletes a non-deleted product in one statement, only at the expected version if one is given.
+     */
+    Optional<ProductPriceChange> softDeleteIfCurrent(Long id, Long expectedVersion, LocalDateTime updatedOn);
+
+    /**
+     * Loads new products through PostgreSQL's COPY protocol. Ids are reserved from the products
+     * sequence in pooled blocks, so they never collide with ids handed out by Hibernate.
+     */
+    long copyIn(List<Product> products);
+
+    /**
+     * Moves up to limit products soft-deleted before the cutoff into products_archive in one statement.
+     * Rows locked by a concurrent run are skipped rather than waited for. Returns the number of rows moved.
+     */
+    int archiveDeleted(LocalDateTime deletedBefore, LocalDateTime archivedOn, int limit);
+}
@@ -0,0 +1,565 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    /** Rows per set-based UPDATE; keeps array parameters and RETURNING sets bounded. */
+    private static final int SET_BASED_CHUNK_SIZE = 1000;
+
+    /** Rows fetched per round trip by full scans. */
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    /** Dictionary words a misspelt query word may stand for in name search. */
+    private static final int WORD_ALTERNATIVES = 5;
+
+    // As in UPDATE_IF_CURRENT_SQL, locking the old rows makes previous_price the price each row is overwritten from;
+    // they are locked in id order so concurrent bulk updates of overlapping ids cannot deadlock
+    private static final String UPDATE_ALL_SQL = """
+            UPDATE products p
+            SET name = v.name, description = v.description, price = v.price,
+                status = COALESCE(v.status, p.status), updated_on = ?, version = p.version + 1
+            FROM (SELECT u.*, o.price AS previous_price
+                  FROM unnest(?::bigint[], ?::varchar[], ?::text[], ?::numeric[], ?::varchar[], ?::bigint[])
+                       AS u(id, name, description, price, status, expected_version)
+                  JOIN products o ON o.id = u.id
+                  ORDER BY o.id
+                  FOR UPDATE OF o) v
+            WHERE p.id = v.id AND p.status <> 'DELETED'
+              AND (v.expected_version IS NULL OR p.version = v.expected_version)
+            RETURNING p.id, v.previous_price, p.price
+            """;
+
+    private static final String FIND_ACTIVE_BY_IDS_SQL =
+            "SELECT id, name, description, price, status, created_on, updated_on, version FROM products "
+                    + "WHERE id = ANY(?) AND " + ACTIVE_PREDICATE;
+
+    // The planner's estimate for the active predicate, read from the JSON plan, which is never executed
+    private static final String ESTIMATE_ACTIVE_SQL =
+            "EXPLAIN (FORMAT JSON) SELECT 1 FROM products WHERE " + ACTIVE_PREDICATE;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final String SCAN_ACTIVE_SQL =
+            "SELECT id, name, description, price, status, created_on, updated_on, version FROM products "
+                    + "WHERE " + ACTIVE_PREDICATE + " ORDER BY id";
+
+    private static final String SOFT_DELETE_ALL_SQL = """
+            UPDATE products SET status = 'DELETED', updated_on = ?, version = version + 1
+            WHERE id = ANY(?) AND status <> 'DELETED'
+            RETURNING id, price AS previous_price, price
+            """;
+
+    // Locking the row in the subquery makes o.price the price this statement overwrites, even under concurrent writers
+    private static final String UPDATE_IF_CURRENT_SQL = """
+            UPDATE products p
+            SET name = ?, description = ?, price = ?, status = COALESCE(?, p.status), updated_on = ?,
+                version = p.version + 1
+            FROM (SELECT id, price FROM products WHERE id = ? FOR UPDATE) o
+            WHERE p.id = o.id AND p.status <> 'DELETED' AND (?::bigint IS NULL OR p.version = ?::bigint)
+            RETURNING p.id, p.name, p.description, p.price, p.status, p.created_on, p.updated_on, p.version,
+                      o.price AS previous_price
+            """;
+
+    private static final String SOFT_DELETE_IF_CURRENT_SQL = """
+            UPDATE products SET status = 'DELETED', updated_on = ?, version = version + 1
+            WHERE id = ? AND status <> 'DELETED' AND (?::bigint IS NULL OR version = ?::bigint)
+            RETURNING id, price AS previous_price, price
+            """;
+
+    // Candidates are the best-scoring active products of each query lexeme (ordered range scans on
+    // idx_product_lexemes_top, at most :candidates per lexeme); only those that match the whole query are ranked.
+    // The lexemes come from to_tsvector of the query text, a superset of the query's (negated words included).
+    private static final String SEARCH_TEXT_SQL = """
+            SELECT p.*
+            FROM products p, websearch_to_tsquery('english', :query) q
+            WHERE p.id IN (SELECT t.product_id
+                           FROM (SELECT DISTINCT lexeme FROM unnest(to_tsvector('english', :query))) w
+                           CROSS JOIN LATERAL (SELECT product_id FROM product_lexemes l
+                                               WHERE l.lexeme = w.lexeme
+                                               ORDER BY l.score DESC, l.product_id
+                                               LIMIT :candidates) t)
+              AND p.status <> 'DELETED' AND p.search_vector @@ q
+            ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    // Prefix matches rank first (ordered range scan on the C-collated lower(name) index). When they cannot fill the
+    // page, each query word is expanded to its closest dictionary words (pg_trgm similarity on product_name_words)
+    // and names containing one alternative per query word are matched through the search_vector index.
+    private static final String SEARCH_NAME_SQL = """
+            WITH prefix AS MATERIALIZED (
+                SELECT *, true AS prefix_match FROM products
+                WHERE status <> 'DELETED' AND lower(name) COLLATE "C" LIKE :prefix
+                ORDER BY lower(name) COLLATE "C"
+                LIMIT :candidates),
+            similar_words AS (
+                SELECT to_tsquery('english', string_agg('(' || alternatives || ')', ' & ')) AS query
+                FROM (SELECT string_agg(w.word || ':A', ' | ') AS alternatives
+                      FROM regexp_split_to_table(:query, '\\W+') WITH ORDINALITY AS t(term, ord)
+                      CROSS JOIN LATERAL (SELECT word FROM product_name_words
+                                          WHERE word % t.term
+                                          ORDER BY similarity(word, t.term) DESC, word
+                                          LIMIT :alternatives) w
+                      WHERE t.term <> ''
+                      GROUP BY t.ord) terms)
+            SELECT * FROM (
+                SELECT * FROM prefix
+                UNION ALL
+                (SELECT *, false AS prefix_match FROM products
+                 WHERE (SELECT count(*) FROM prefix) < :offset + :limit
+                   AND status <> 'DELETED' AND search_vector @@ (SELECT query FROM similar_words)
+                   AND lower(name) NOT LIKE :prefix
+                 LIMIT :candidates)) c
+            ORDER BY prefix_match DESC, word_similarity(:query, lower(name)) DESC, id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    // Transactions below the snapshot's xmin have all finished, and the statement's own snapshot sees their rows
+    private static final String CHANGE_HORIZON = "pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String CHANGED_AFTER_SQL = """
+            SELECT id, name, description, price, status, created_on, updated_on, version, change_txid FROM products
+            WHERE (change_txid, id) > (?, ?) AND change_txid < %s
+            ORDER BY change_txid, id
+            LIMIT ?
+            """.formatted(CHANGE_HORIZON);
+
+    private static final String LATEST_CHANGE_SQL = """
+            SELECT change_txid, id FROM products
+            WHERE change_txid < %s
+            ORDER BY change_txid DESC, id DESC
+            LIMIT 1
+            """.formatted(CHANGE_HORIZON);
+
+    private static final String CHANGE_HORIZON_SQL = "SELECT " + CHANGE_HORIZON;
+
+    private static final String COPY_IN_SQL =
+            "COPY products (id, name, description, price, status, created_on, updated_on) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String ARCHIVE_DELETED_SQL = """
+            WITH moved AS (
+                DELETE FROM products
+                WHERE id IN (SELECT id FROM products
+                             WHERE status = 'DELETED' AND updated_on < ?
+                             ORDER BY updated_on
+                             LIMIT ?
+                             FOR UPDATE SKIP LOCKED)
+                RETURNING id, name, description, price, created_on, updated_on, status)
+            INSERT INTO products_archive (id, name, description, price, created_on, updated_on, status, archived_on)
+            SELECT id, name, description, price, created_on, updated_on, status, ? FROM moved
+            """;
+
+    private static final RowMapper<ProductPriceChange> PRICE_CHANGE_MAPPER = (rs, rowNum) -> new ProductPriceChange(
+            rs.getLong("id"), money(rs, "previous_price"), money(rs, "price"));
+
+    private static final RowMapper<Product> PRODUCT_MAPPER = (rs, rowNum) -> Product.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .description(rs.getString("description"))
+            .price(money(rs, "price"))
+            .status(ProductStatus.valueOf(rs.getString("status")))
+            .createdOn(localDateTime(rs, "created_on"))
+            .updatedOn(localDateTime(rs, "updated_on"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private static final RowMapper<UpdatedProduct> UPDATED_PRODUCT_MAPPER = (rs, rowNum) -> new UpdatedProduct(
+            PRODUCT_MAPPER.mapRow(rs, rowNum), money(rs, "previous_price"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final int searchCandidates;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                       @Value("${app.search.max-candidates:1000}") int searchCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.searchCandidates = searchCandidates;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<Product> findActiveSlice(ProductSortField sortField, Sort.Direction direction, ProductCursor after, int size) {
+        String column = sortField.getSortExpression();
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        String comparison = direction.isAscending() ? ">" : "<";
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM products WHERE ").append(ACTIVE_PREDICATE);
+        if (after != null) {
+            if (sortField == ProductSortField.ID) {
+                sql.append(" AND id ").append(comparison).append(" :afterId");
+            } else {
+                sql.append(" AND (").append(column).append(", id) ").append(comparison).append(" (:afterValue, :afterId)");
+            }
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(order);
+        if (sortField != ProductSortField.ID) {
+            sql.append(", id ").append(order);
+        }
+        sql.append(" LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Product.class)
+                .setParameter("limit", size + 1);
+        if (after != null) {
+            query.setParameter("afterId", after.id());
+            if (sortField != ProductSortField.ID) {
+                query.setParameter("afterValue", ProductSortField.toParameter(after.value()));
+            }
+        }
+
+        List<Product> rows = new ArrayList<>(query.getResultList());
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows.remove(size);
+        }
+        Sort sort = Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, "id"));
+        return new SliceImpl<>(rows, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Product> findActiveByPrice(Money minPrice, Money maxPrice, Sort.Direction direction,
+                                           ProductCursor after, int limit) {
+        String order = direction.isAscending() ? "ASC" : "DESC";
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM products WHERE ").append(ACTIVE_PREDICATE);
+        if (minPrice != null) {
+            sql.append(" AND price > :minPrice");
+        }
+        if (maxPrice != null) {
+            sql.append(" AND price <= :maxPrice");
+        }
+        if (after != null) {
+            sql.append(" AND (price, id) ").append(direction.isAscending() ? ">" : "<").append(" (:afterPrice, :afterId)");
+        }
+        sql.append(" ORDER BY price ").append(order).append(", id ").append(order).append(" LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Product.class)
+                .setParameter("limit", limit);
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPrice.toBigDecimal());
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPrice.toBigDecimal());
+        }
+        if (after != null) {
+            query.setParameter("afterPrice", ProductSortField.toParameter(after.value()));
+            query.setParameter("afterId", after.id());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findActiveByIds(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        List<Product> products = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += SET_BASED_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + SET_BASED_CHUNK_SIZE, idList.size()));
+            products.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(FIND_ACTIVE_BY_IDS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", chunk.toArray()));
+                return ps;
+            }, PRODUCT_MAPPER));
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long estimateActive() {
+        String plan = jdbcTemplate.queryForObject(ESTIMATE_ACTIVE_SQL, String.class);
+        Matcher rows = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan);
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachActive(Consumer<Product> action) {
+        // Postgres only streams with a fetch size inside a transaction; otherwise it reads the whole result
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN_ACTIVE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(PRODUCT_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChangedProduct> findChangedAfter(ProductChangeCursor after, int limit) {
+        return jdbcTemplate.query(CHANGED_AFTER_SQL, (rs, rowNum) -> new ChangedProduct(PRODUCT_MAPPER.mapRow(rs, rowNum),
+                new ProductChangeCursor(rs.getLong("change_txid"), rs.getLong("id"))), after.txid(), after.id(), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProductChangeCursor> findLatestChange() {
+        return jdbcTemplate.query(LATEST_CHANGE_SQL, (rs, rowNum) -> new ProductChangeCursor(
+                rs.getLong("change_txid"), rs.getLong("id"))).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findChangeHorizon() {
+        Long horizon = jdbcTemplate.queryForObject(CHANGE_HORIZON_SQL, Long.class);
+        if (horizon == null) {
+            throw new IllegalStateException("No snapshot xmin");
+        }
+        return horizon;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<Product> searchActive(String query, ProductSearchMode mode, Pageable pageable) {
+        Query search;
+        if (mode == ProductSearchMode.NAME) {
+            String term = query.toLowerCase(Locale.ROOT);
+            search = entityManager.createNativeQuery(SEARCH_NAME_SQL, Product.class)
+                    .setParameter("query", term)
+                    .setParameter("prefix", escapeLike(term) + "%")
+                    .setParameter("alternatives", WORD_ALTERNATIVES);
+        } else {
+            search = entityManager.createNativeQuery(SEARCH_TEXT_SQL, Product.class)
+                    .setParameter("query", query);
+        }
+        search.setParameter("candidates", searchCandidates)
+                .setParameter("limit", pageable.getPageSize() + 1)
+                .setParameter("offset", pageable.getOffset());
+
+        List<Product> rows = new ArrayList<>(search.getResultList());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows.remove(pageable.getPageSize());
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional
+    public List<Product> insertAll(List<Product> products) {
+        for (int i = 0; i < products.size(); i++) {
+            entityManager.persist(products.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return products;
+    }
+
+    @Override
+    @Transactional
+    public List<ProductPriceChange> updateAll(List<Product> products, LocalDateTime updatedOn) {
+        flushPendingWrites();
+        List<ProductPriceChange> changes = new ArrayList<>(products.size());
+        for (int from = 0; from < products.size(); from += SET_BASED_CHUNK_SIZE) {
+            List<Product> chunk = products.subList(from, Math.min(from + SET_BASED_CHUNK_SIZE, products.size()));
+            changes.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(UPDATE_ALL_SQL);
+                ps.setTimestamp(1, Timestamp.valueOf(updatedOn));
+                ps.setArray(2, con.createArrayOf("bigint", chunk.stream().map(Product::getId).toArray()));
+                ps.setArray(3, con.createArrayOf("varchar", chunk.stream().map(Product::getName).toArray()));
+                ps.setArray(4, con.createArrayOf("text", chunk.stream().map(Product::getDescription).toArray()));
+                ps.setArray(5, con.createArrayOf("numeric", chunk.stream().map(product -> product.getPrice().toBigDecimal()).toArray()));
+                ps.setArray(6, con.createArrayOf("varchar", chunk.stream()
+                        .map(product -> product.getStatus() == null ? null : product.getStatus().name()).toArray()));
+                ps.setArray(7, con.createArrayOf("bigint", chunk.stream().map(Product::getVersion).toArray()));
+                return ps;
+            }, PRICE_CHANGE_MAPPER));
+        }
+        return changes;
+    }
+
+    @Override
+    @Transactional
+    public List<ProductPriceChange> softDeleteAll(Collection<Long> ids, LocalDateTime updatedOn) {
+        flushPendingWrites();
+        List<Long> idList = List.copyOf(ids);
+        List<ProductPriceChange> changes = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += SET_BASED_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + SET_BASED_CHUNK_SIZE, idList.size()));
+            changes.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SOFT_DELETE_ALL_SQL);
+                ps.setTimestamp(1, Timestamp.valueOf(updatedOn));
+                ps.setArray(2, con.createArrayOf("bigint", chunk.toArray()));
+                return ps;
+            }, PRICE_CHANGE_MAPPER));
+        }
+        return changes;
+    }
+
+    @Override
+    @Transactional
+    public Optional<UpdatedProduct> updateIfCurrent(Product product, Long expectedVersion, LocalDateTime updatedOn) {
+        flushPendingWrites();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_IF_CURRENT_SQL);
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice().toBigDecimal());
+            ps.setString(4, product.getStatus() == null ? null : product.getStatus().name());
+            ps.setTimestamp(5, Timestamp.valueOf(updatedOn));
+            ps.setLong(6, product.getId());
+            ps.setObject(7, expectedVersion, Types.BIGINT);
+            ps.setObject(8, expectedVersion, Types.BIGINT);
+            return ps;
+        }, UPDATED_PRODUCT_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public Optional<ProductPriceChange> softDeleteIfCurrent(Long id, Long expectedVersion, LocalDateTime updatedOn) {
+        flushPendingWrites();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SOFT_DELETE_IF_CURRENT_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(updatedOn));
+            ps.setLong(2, id);
+            ps.setObject(3, expectedVersion, Types.BIGINT);
+            ps.setObject(4, expectedVersion, Types.BIGINT);
+            return ps;
+        }, PRICE_CHANGE_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public long copyIn(List<Product> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        int blocks = (products.size() + Product.ID_ALLOCATION_SIZE - 1) / Product.ID_ALLOCATION_SIZE;
+        Iterator<Long> ids = reserveIds(blocks).iterator();
+        LocalDateTime now = LocalDateTime.now();
+
+        StringBuilder csv = new StringBuilder(products.size() * 128);
+        for (Product product : products) {
+            product.setId(ids.next());
+            product.setCreatedOn(now);
+            product.setUpdatedOn(now);
+            csv.append(product.getId()).append(',');
+            appendCsv(csv, product.getName()).append(',');
+            appendCsv(csv, product.getDescription()).append(',');
+            csv.append(product.getPrice()).append(',');
+            csv.append(product.getStatus().name()).append(',');
+            csv.append(now).append(',');
+            csv.append(now).append('\n');
+        }
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con ->
+                copy(con.unwrap(PGConnection.class), csv));
+        return copied == null ? 0 : copied;
+    }
+
+    @Override
+    @Transactional
+    public int archiveDeleted(LocalDateTime deletedBefore, LocalDateTime archivedOn, int limit) {
+        return jdbcTemplate.update(ARCHIVE_DELETED_SQL, Timestamp.valueOf(deletedBefore), limit, Timestamp.valueOf(archivedOn));
+    }
+
+    /**
+     * Writes entities still pending in the persistence context (saved ids are pooled, so a save does not insert
+     * at once) before a JDBC statement that must see them.
+     */
+    private void flushPendingWrites() {
+        entityManager.flush();
+    }
+
+    private List<Long> reserveIds(int blocks) {
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('" + Product.ID_SEQUENCE + "') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(blocks * Product.ID_ALLOCATION_SIZE);
+        for (Long high : highs) {
+            // Same block layout as Hibernate's pooled optimizer: (high - allocationSize, high]
+            for (long id = high - Product.ID_ALLOCATION_SIZE + 1; id <= high; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static long copy(PGConnection connection, CharSequence csv) throws SQLException {
+        try {
+            return connection.getCopyAPI().copyIn(COPY_IN_SQL, new StringReader(csv.toString()));
+        } catch (IOException ex) {
+            throw new SQLException("COPY into products failed", ex);
+        }
+    }
+
+    private static Money money(ResultSet rs, String column) throws SQLException {
+        BigDecimal amount = rs.getBigDecimal(column);
+        return amount == null ? null : Money.valueOf(amount);
+    }
+
+    private static LocalDateTime localDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
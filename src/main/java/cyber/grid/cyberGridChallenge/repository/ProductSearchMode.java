@@ -0,0 +1,20 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * How a search query is matched against products.
+ */
+public enum ProductSearchMode {
+    /** Words in name or description (web search syntax), ranked by relevance with name matches weighted higher. */
+    TEXT,
+    /** Name prefixes first, then names whose words are close spellings of the query words (tolerates typos). */
+    NAME;
+
+    public static Optional<ProductSearchMode> fromName(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+}
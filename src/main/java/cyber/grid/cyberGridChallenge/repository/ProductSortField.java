@@ -0,0 +1,53 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.money.Money;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Sortable product fields, mapping the API property name to its column, the SQL it sorts by and its keyset value.
+ * Names sort byte-wise (COLLATE "C", as their index is built) whatever the database collation, which is the order
+ * the catalog snapshot serves them in too, so a page reads the same from either.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProductSortField {
+    NAME("name", "name", "name COLLATE \"C\"", Product::getName, raw -> raw),
+    PRICE("price", "price", "price", Product::getPrice, Money::valueOf),
+    CREATED_ON("createdOn", "created_on", "created_on", Product::getCreatedOn, LocalDateTime::parse),
+    UPDATED_ON("updatedOn", "updated_on", "updated_on", Product::getUpdatedOn, LocalDateTime::parse),
+    ID("id", "id", "id", Product::getId, Long::valueOf);
+
+    private final String property;
+    private final String column;
+    private final String sortExpression;
+    private final Function<Product, Object> extractor;
+    private final Function<String, Object> parser;
+
+    public static Optional<ProductSortField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equalsIgnoreCase(property))
+                .findFirst();
+    }
+
+    public Object valueOf(Product product) {
+        return extractor.apply(product);
+    }
+
+    public Object parseValue(String raw) {
+        return parser.apply(raw);
+    }
+
+    /**
+     * Converts a keyset value to what native queries bind for this field's column.
+     */
+    public static Object toParameter(Object value) {
+        return value instanceof Money money ? money.toBigDecimal() : value;
+    }
+}
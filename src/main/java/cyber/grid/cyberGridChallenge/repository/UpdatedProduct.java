@@ -0,0 +1,10 @@
+package cyber.grid.cyberGridChallenge.repository;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.money.Money;
+
+/**
+ * Row written by a single-statement update, as returned by the statement, with the price it had before.
+ */
+public record UpdatedProduct(Product product, Money previousPrice) {
+}
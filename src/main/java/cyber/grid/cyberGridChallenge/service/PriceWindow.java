@@ -0,0 +1,43 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * Cached leading rows of a price bucket: the first rows priced above the bucket bound in ascending
+ * order, or the first rows priced at or below it in descending order (a null bound is the top).
+ * Exhausted windows hold every row on their side of the bound.
+ */
+public record PriceWindow(Sort.Direction direction, Money bound, List<ProductDTO> rows, boolean exhausted) {
+
+    /**
+     * Cache key of a window: nearby start prices round to the same bucket bound.
+     */
+    public record Key(Sort.Direction direction, Money bound) {
+    }
+
+    public static Money priceOf(ProductDTO product) {
+        return product.getPrice();
+    }
+
+    /**
+     * Tells whether any of the given prices falls in the price range this window has read,
+     * i.e. whether a product at that price could appear in, or disappear from, its rows.
+     */
+    public boolean covers(NavigableSet<Money> prices) {
+        if (direction.isAscending()) {
+            Money price = bound == null ? prices.first() : prices.higher(bound);
+            return price != null && (exhausted || price.compareTo(lastPrice()) <= 0);
+        }
+        Money price = bound == null ? prices.last() : prices.floor(bound);
+        return price != null && (exhausted || price.compareTo(lastPrice()) >= 0);
+    }
+
+    private Money lastPrice() {
+        return priceOf(rows.get(rows.size() - 1));
+    }
+}
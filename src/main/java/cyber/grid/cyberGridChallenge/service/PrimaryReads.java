@@ -0,0 +1,46 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the reads whose results are cached (cache loads, their background refreshes and the rows a batch lookup
+ * caches) against the primary. A replica may not have applied the write that just evicted an entry, and a row
+ * read from it would then be served until the entry expires. The reads run outside any surrounding transaction,
+ * whose connection may already be a replica's, with replica routing pinned to the primary; without replicas
+ * only the transaction is set aside.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionOperations outsideTransaction;
+
+    @Autowired
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.outsideTransaction = template;
+    }
+
+    PrimaryReads(TransactionOperations outsideTransaction) {
+        this.outsideTransaction = outsideTransaction;
+    }
+
+    /**
+     * A reader for code that runs without transactions, such as benchmarks: reads are only pinned to the primary.
+     */
+    public static PrimaryReads withoutTransaction() {
+        return new PrimaryReads(TransactionOperations.withoutTransaction());
+    }
+
+    public <T> T read(Supplier<T> reads) {
+        return outsideTransaction.execute(status -> ReplicaLagGuard.onPrimary(reads));
+    }
+}
@@ -0,0 +1,51 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ProductArchiveJob {
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.archive.retention:30d}")
+    private Duration retention;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Moves products soft-deleted longer than the retention period into products_archive,
+     * one batch per transaction so locks and WAL bursts stay short.
+     */
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:5m}", fixedDelayString = "${app.archive.interval:1h}")
+    public void archiveDeletedProducts() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deletedBefore = now.minus(retention);
+        long archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved = productRepository.archiveDeleted(deletedBefore, now, batchSize);
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} products deleted before {}", archived, deletedBefore);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the product caches of all instances coherent through PostgreSQL LISTEN/NOTIFY, so no broker is needed.
+ * Writers queue the product ids and prices they invalidate on their transaction, which sends them as one NOTIFY;
+ * Postgres delivers it to every listening instance (this one included) only once the transaction commits. Each
+ * instance listens on a dedicated connection outside the pool and evicts notifications arriving together at once.
+ */
+@Component
+@Slf4j
+public class ProductCacheInvalidationChannel implements SmartLifecycle {
+
+    public static final String RECEIVED = "product.cache.invalidation.received";
+    public static final String RESYNCS = "product.cache.invalidation.resyncs";
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final int MAX_COALESCED_NOTIFICATIONS = 1000;
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<ProductCacheInvalidator> productCacheInvalidator;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration coalesceWindow;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ProductCacheInvalidationChannel(JdbcTemplate jdbcTemplate,
+                                           DataSourceProperties dataSourceProperties,
+                                           ObjectProvider<ProductCacheInvalidator> productCacheInvalidator,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.cache.invalidation.enabled:false}") boolean enabled,
+                                           @Value("${app.cache.invalidation.channel:product_cache}") String channel,
+                                           @Value("${app.cache.invalidation.coalesce-window:5ms}") Duration coalesceWindow,
+                                           @Value("${app.cache.invalidation.reconnect-delay:1s}") Duration reconnectDelay) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.coalesceWindow = coalesceWindow;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Invalidates the given products and price windows on every instance. Inside a transaction they are merged
+     * with the transaction's earlier invalidations and sent just before it commits, so Postgres delivers them
+     * only if it commits; outside one they are sent right away.
+     */
+    public void publish(Collection<Long> ids, Collection<Money> prices) {
+        if (!enabled) {
+            return;
+        }
+        Set<Money> knownPrices = prices.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty() && knownPrices.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(new LinkedHashSet<>(ids), knownPrices);
+            return;
+        }
+        PendingInvalidation pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingInvalidation.class::isInstance)
+                .map(PendingInvalidation.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingInvalidation created = new PendingInvalidation();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        pending.ids.addAll(ids);
+        pending.prices.addAll(knownPrices);
+    }
+
+    private void send(Set<Long> ids, Set<Money> prices) {
+        for (String payload : encode(ids, prices)) {
+            jdbcTemplate.query(NOTIFY_SQL, (RowCallbackHandler) rs -> { }, channel, payload);
+        }
+    }
+
+    /**
+     * Encodes ids as "i&lt;id&gt;" and prices as "p&lt;cents&gt;" tokens, comma separated, split into as few
+     * payloads as fit the NOTIFY size limit.
+     */
+    static List<String> encode(Collection<Long> ids, Collection<Money> prices) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        List<String> tokens = new ArrayList<>(ids.size() + prices.size());
+        ids.forEach(id -> tokens.add("i" + id));
+        prices.forEach(price -> tokens.add("p" + price.cents()));
+        for (String token : tokens) {
+            if (!payload.isEmpty() && payload.length() + 1 + token.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) {
+                payload.append(',');
+            }
+            payload.append(token);
+        }
+        if (!payload.isEmpty()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * Adds the ids and prices of an encoded payload to the given sets, skipping tokens it does not understand.
+     */
+    static void decode(String payload, Set<Long> ids, Set<Money> prices) {
+        for (String token : payload.split(",")) {
+            try {
+                if (token.startsWith("i")) {
+                    ids.add(Long.valueOf(token.substring(1)));
+                } else if (token.startsWith("p")) {
+                    prices.add(Money.ofCents(Long.parseLong(token.substring(1))));
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("Ignoring malformed cache invalidation token: {}", token);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "product-cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Notifications sent while nobody listened are lost, so start over from empty caches
+                meterRegistry.counter(RESYNCS).increment();
+                productCacheInvalidator.getObject().clear();
+                log.info("Listening for product cache invalidations on channel {}", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    receive(pgConnection);
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection; reconnecting in {}", reconnectDelay, ex);
+                    pause();
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Cache invalidation listener failed; reconnecting in {}", reconnectDelay, ex);
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Waits for notifications, then briefly for more, and evicts everything they name at once, so a burst of
+     * writes costs one pass over the caches rather than one per write.
+     */
+    private void receive(PGConnection pgConnection) throws SQLException {
+        PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+        if (notifications == null || notifications.length == 0) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<Money> prices = new LinkedHashSet<>();
+        int received = 0;
+        do {
+            for (PGNotification notification : notifications) {
+                decode(notification.getParameter(), ids, prices);
+            }
+            received += notifications.length;
+            notifications = coalesceWindow.toMillis() > 0
+                    ? pgConnection.getNotifications((int) coalesceWindow.toMillis())
+                    : null;
+        } while (notifications != null && notifications.length > 0 && received < MAX_COALESCED_NOTIFICATIONS);
+        meterRegistry.counter(RECEIVED).increment(received);
+        productCacheInvalidator.getObject().evictLocally(ids, prices);
+        log.debug("Evicted {} product(s) and {} price(s) from {} invalidation(s)", ids.size(), prices.size(), received);
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        // Detects a silently dropped connection, which would otherwise just look like a quiet channel
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "product-cache-invalidation");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * The invalidations a transaction has queued, sent as NOTIFY just before it commits.
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final Set<Money> prices = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(ids, prices);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final ProductCacheInvalidationChannel productCacheInvalidationChannel;
+
+    /**
+     * Evicts the cached product entries for the given ids, here (now and again once the transaction completes)
+     * and, once it commits, on every other instance.
+     */
+    public void evictProducts(Collection<Long> ids) {
+        evictAround(List.copyOf(ids), List.of());
+        productCacheInvalidationChannel.publish(ids, List.of());
+    }
+
+    /**
+     * Evicts cached price windows that have read any of the given prices, so a product created, deleted
+     * or repriced at one of them cannot be served stale. Windows over other price ranges stay cached.
+     * This instance evicts them now and again once the transaction completes; other instances once it commits.
+     */
+    public void evictPriceWindows(Collection<Money> prices) {
+        evictAround(List.of(), new ArrayList<>(prices));
+        productCacheInvalidationChannel.publish(List.of(), prices);
+    }
+
+    /**
+     * Evicts cached price windows that have read any of the given prices.
+     */
+    public void evictPriceWindows(Money... prices) {
+        evictPriceWindows(Arrays.asList(prices));
+    }
+
+    /**
+     * Evicts the given products and the price windows covering the given prices on this instance only.
+     */
+    public void evictLocally(Collection<Long> ids, Collection<Money> prices) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (products != null) {
+            ids.forEach(products::evict);
+        }
+        NavigableSet<Money> affected = prices.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (affected.isEmpty()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.EXPENSIVE_PRODUCTS_CACHE);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().values()
+                    .removeIf(value -> !(value instanceof PriceWindow window) || window.covers(affected));
+            log.debug("Evicted price windows covering {} price(s)", affected.size());
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Evicts now and, inside a transaction, again after it completes: a read racing the write can re-cache the
+     * pre-commit value after the first eviction, which would otherwise be served for the full TTL.
+     */
+    private void evictAround(Collection<Long> ids, Collection<Money> prices) {
+        evictLocally(ids, prices);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocally(ids, prices);
+                }
+            });
+        }
+    }
+
+    /**
+     * Empties this instance's product caches, for when invalidations may have been missed.
+     */
+    public void clear() {
+        Stream.of(CacheConfig.PRODUCTS_CACHE, CacheConfig.EXPENSIVE_PRODUCTS_CACHE, CacheConfig.PRODUCT_COUNT_CACHE)
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+}
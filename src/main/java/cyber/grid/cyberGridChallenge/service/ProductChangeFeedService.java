@@ -0,0 +1,100 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangePageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ChangedProduct;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ProductChangeFeedService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductChangeWatcher productChangeWatcher;
+    private final PrimaryReads primaryReads;
+
+    @Value("${app.changes.max-wait:30s}")
+    private Duration maxWait;
+
+    @Value("${app.changes.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Retrieves products created, updated or soft deleted after the high-water mark, in commit order, one keyset
+     * page at a time. The mark is a cursor from a previous page; without one the feed starts at the beginning.
+     * Read on the primary, and never past a write transaction still in progress, so a row cannot commit behind
+     * a cursor already handed out. A product written several times appears once, as of its latest write.
+     * Soft-deleted products only remain in the feed until they are archived.
+     */
+    public ProductChangePageDTO getChanges(String cursor, int size) {
+        ProductChangeCursor after = mark(cursor);
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+
+        List<ChangedProduct> rows = new ArrayList<>(
+                primaryReads.read(() -> productRepository.findChangedAfter(after, pageSize + 1)));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.remove(pageSize);
+        }
+        ProductChangeCursor next = rows.isEmpty() ? after : rows.get(rows.size() - 1).position();
+
+        return ProductChangePageDTO.builder()
+                .changes(rows.stream().map(row -> toChange(row.product())).toList())
+                .hasNext(hasNext)
+                .cursor(next.encode())
+                .build();
+    }
+
+    /**
+     * Like getChanges, but when there are no changes yet waits up to the given time (capped at
+     * app.changes.max-wait) for one to become readable. No connection is held while waiting.
+     */
+    public ProductChangePageDTO awaitChanges(String cursor, int size, Duration wait) throws InterruptedException {
+        ProductChangePageDTO page = getChanges(cursor, size);
+        ProductChangeCursor after = mark(cursor);
+        long deadline = System.nanoTime() + (wait.compareTo(maxWait) < 0 ? wait : maxWait).toNanos();
+        long remaining;
+        while (page.getChanges().isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+            Optional<ProductChangeCursor> latest = productChangeWatcher.awaitNextPoll(Duration.ofNanos(remaining));
+            if (latest.isPresent() && latest.get().compareTo(after) > 0) {
+                page = getChanges(cursor, size);
+            }
+        }
+        return page;
+    }
+
+    private static ProductChangeCursor mark(String cursor) {
+        return cursor == null || cursor.isBlank() ? ProductChangeCursor.START : ProductChangeCursor.decode(cursor);
+    }
+
+    private ProductChangeDTO toChange(Product product) {
+        return ProductChangeDTO.builder()
+                .type(typeOf(product))
+                .product(productMapper.toDTO(product))
+                .build();
+    }
+
+    /**
+     * Every write bumps the version from the 0 a product is created with, and soft deletes are final.
+     */
+    static ProductChangeType typeOf(Product product) {
+        if (product.getStatus() == ProductStatus.DELETED) {
+            return ProductChangeType.DELETED;
+        }
+        return product.getVersion() == null || product.getVersion() == 0 ? ProductChangeType.CREATED : ProductChangeType.UPDATED;
+    }
+}
@@ -0,0 +1,72 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls the latest readable change on the primary on behalf of every long-polling change feed client, so waiting
+ * clients cost one index lookup per poll interval in total rather than a query each. Only polls while someone is
+ * waiting.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeWatcher {
+
+    private final ProductRepository productRepository;
+    private final PrimaryReads primaryReads;
+
+    // A lock rather than synchronized so waiting virtual threads do not pin their carriers
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition polled = lock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private long polls;
+    private ProductChangeCursor latest;
+
+    @Scheduled(fixedDelayString = "${app.changes.poll-interval:1s}")
+    public void poll() {
+        if (waiting.get() == 0) {
+            return;
+        }
+        ProductChangeCursor change = primaryReads.read(productRepository::findLatestChange).orElse(null);
+        lock.lock();
+        try {
+            latest = change;
+            polls++;
+            polled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the next poll and returns the latest change it saw, or empty if there is none or the timeout
+     * elapsed first.
+     */
+    public Optional<ProductChangeCursor> awaitNextPoll(Duration timeout) throws InterruptedException {
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            long seen = polls;
+            long nanos = timeout.toNanos();
+            while (polls == seen) {
+                if (nanos <= 0) {
+                    return Optional.empty();
+                }
+                nanos = polled.awaitNanos(nanos);
+            }
+            return Optional.ofNullable(latest);
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Totals for offset pages of active products, as app.count.mode says: exact (a count query per page, which
+ * reads every active row), cached (that count, taken on the primary, kept for app.cache.product-count.ttl and
+ * dropped by writes on this instance that add or remove products) or estimated (the planner's statistics, which read no rows).
+ */
+@Component
+public class ProductCounter {
+
+    private static final String ACTIVE = "active";
+
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final PrimaryReads primaryReads;
+    private final ProductCountMode mode;
+
+    public ProductCounter(ProductRepository productRepository,
+                          CacheManager cacheManager,
+                          PrimaryReads primaryReads,
+                          @Value("${app.count.mode:exact}") ProductCountMode mode) {
+        if (mode == ProductCountMode.SNAPSHOT) {
+            throw new IllegalArgumentException("app.count.mode must be exact, cached or estimated");
+        }
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.primaryReads = primaryReads;
+        this.mode = mode;
+    }
+
+    /**
+     * The page of the given rows with its total. When the rows end the listing their count gives the total,
+     * as in Spring Data's own pages, so none is looked up; an estimate is raised to the rows already read.
+     */
+    public <T> CountedPage<T> page(List<T> content, Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        if ((pageable.isUnpaged() || content.size() < pageable.getPageSize()) && (offset == 0 || !content.isEmpty())) {
+            return new CountedPage<>(content, pageable, offset + content.size(), ProductCountMode.EXACT);
+        }
+        long total = switch (mode) {
+            case CACHED -> cachedCount();
+            case ESTIMATED -> productRepository.estimateActive();
+            default -> productRepository.countActive();
+        };
+        return new CountedPage<>(content, pageable, Math.max(total, offset + content.size()), mode);
+    }
+
+    /**
+     * Drops the cached count now and again once the current transaction completes, so a count read while the
+     * write was in flight is not kept past it.
+     */
+    public void invalidate() {
+        if (mode != ProductCountMode.CACHED) {
+            return;
+        }
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private long cachedCount() {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_COUNT_CACHE);
+        if (cache == null) {
+            return productRepository.countActive();
+        }
+        // Counted on the primary, as the count outlives the page's transaction
+        Long count = cache.get(ACTIVE, () -> primaryReads.read(productRepository::countActive));
+        return count != null ? count : productRepository.countActive();
+    }
+
+    private void evict() {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_COUNT_CACHE);
+        if (cache != null) {
+            cache.evict(ACTIVE);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import cyber.grid.cyberGridChallenge.dto.ImportRejectDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductImportResultDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final ProductOutboxRepository productOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCounter productCounter;
+
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-rejects:1000}")
+    private int maxReportedRejects;
+
+    /**
+     * Imports products from an NDJSON or CSV stream (CSV needs a header row; quoted fields may not span lines).
+     * Each row is validated like ProductCreateDTO. Valid rows are loaded with COPY in chunks, each in its own
+     * transaction together with its outbox events. Bad rows, including ones the database rejects, are reported
+     * and the load continues.
+     */
+    public ProductImportResultDTO importProducts(InputStream inputStream, Format format) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long line = 0;
+        ObjectReader rowReader;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            line++;
+            if (header == null) {
+                return run.toResult();
+            }
+            rowReader = csvReader(header);
+        } else {
+            rowReader = objectMapper.readerFor(ProductCreateDTO.class);
+        }
+
+        String row;
+        while ((row = reader.readLine()) != null) {
+            line++;
+            if (row.isBlank()) {
+                continue;
+            }
+            run.received++;
+            ProductCreateDTO productCreateDTO;
+            try {
+                productCreateDTO = rowReader.readValue(row);
+            } catch (JsonProcessingException ex) {
+                run.reject(line, "Malformed row: " + ex.getOriginalMessage());
+                continue;
+            }
+            String violations = ProductService.describe(validator.validate(productCreateDTO));
+            if (violations != null) {
+                run.reject(line, violations);
+                continue;
+            }
+            run.lines.add(line);
+            run.products.add(productMapper.toEntity(productCreateDTO));
+            if (run.products.size() >= chunkSize) {
+                flush(run);
+            }
+        }
+        flush(run);
+        log.info("Product import finished: {} received, {} imported, {} rejected", run.received, run.imported, run.rejected);
+        return run.toResult();
+    }
+
+    private ObjectReader csvReader(String header) throws IOException {
+        CsvMapper csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(ProductCreateDTO.class).with(schema.build());
+    }
+
+    private void flush(ImportRun run) {
+        if (run.products.isEmpty()) {
+            return;
+        }
+        copy(run, run.products, run.lines);
+        run.products.clear();
+        run.lines.clear();
+    }
+
+    /**
+     * Copies the rows in one transaction. When the database rejects the data itself (a constraint or a value
+     * the columns cannot hold), the halves are retried on their own until the bad rows are isolated, so one
+     * bad row costs about 2 log2(chunk size) extra COPYs instead of the whole chunk. Any other failure rejects
+     * the rows as they are.
+     */
+    private void copy(ImportRun run, List<Product> products, List<Long> lines) {
+        try {
+            Long copied = transactionTemplate.execute(status -> {
+                long rows = productRepository.copyIn(products);
+                productOutboxRepository.append(ProductChangeType.CREATED, products.stream().map(Product::getId).toList());
+                return rows;
+            });
+            run.imported += copied == null ? 0 : copied;
+            productCacheInvalidator.evictPriceWindows(products.stream().map(Product::getPrice).toList());
+            productCounter.invalidate();
+        } catch (DataIntegrityViolationException ex) {
+            if (products.size() == 1) {
+                run.reject(lines.get(0), "Row rejected by database: " + ex.getMostSpecificCause().getMessage());
+                return;
+            }
+            int half = products.size() / 2;
+            copy(run, products.subList(0, half), lines.subList(0, half));
+            copy(run, products.subList(half, products.size()), lines.subList(half, lines.size()));
+        } catch (DataAccessException ex) {
+            log.warn("COPY of {} product rows failed", products.size(), ex);
+            String message = "Chunk rejected by database: " + ex.getMostSpecificCause().getMessage();
+            lines.forEach(line -> run.reject(line, message));
+        }
+    }
+
+    private final class ImportRun {
+        private final List<Product> products = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+        private final List<ImportRejectDTO> rejects = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (rejects.size() < maxReportedRejects) {
+                rejects.add(new ImportRejectDTO(line, message));
+            }
+        }
+
+        private ProductImportResultDTO toResult() {
+            return ProductImportResultDTO.builder()
+                    .received(received)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejects(rejects)
+                    .rejectsTruncated(rejected > rejects.size())
+                    .build();
+        }
+    }
+}
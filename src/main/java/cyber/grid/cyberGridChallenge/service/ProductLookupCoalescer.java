@@ -0,0 +1,135 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Merges concurrent single-product lookups into one id = ANY(?) query. The first lookup of a batch leads it: it
+ * waits up to the window (or until max-batch-size distinct ids have joined), runs the query on its own thread and
+ * hands every waiting caller its product. Every lookup reads committed rows on the primary (see
+ * {@link PrimaryReads}), since what it finds is cached, so any lookups can share a batch.
+ */
+@Component
+@Slf4j
+public class ProductLookupCoalescer {
+
+    public static final String BATCH_SIZE = "product.lookup.batch.size";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final PrimaryReads primaryReads;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch pending;
+
+    public ProductLookupCoalescer(ProductRepository productRepository,
+                                  ProductMapper productMapper,
+                                  PrimaryReads primaryReads,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.lookup.coalesce.enabled:false}") boolean enabled,
+                                  @Value("${app.lookup.coalesce.window:2ms}") Duration window,
+                                  @Value("${app.lookup.coalesce.max-batch-size:100}") int maxBatchSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.primaryReads = primaryReads;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+    }
+
+    /**
+     * Finds a non-deleted product, batched with the lookups of other callers arriving within the window.
+     */
+    public Optional<ProductDTO> find(Long id) {
+        if (!enabled) {
+            return primaryReads.read(() -> productRepository.findByIdAndStatusNot(id, ProductStatus.DELETED))
+                    .map(productMapper::toDTO);
+        }
+        Batch batch;
+        boolean leader;
+        CompletableFuture<Optional<ProductDTO>> result;
+        synchronized (lock) {
+            leader = pending == null;
+            if (leader) {
+                pending = new Batch();
+            }
+            batch = pending;
+            result = batch.results.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.results.size() >= maxBatchSize) {
+                pending = null;
+                batch.full.countDown();
+            }
+        }
+        if (leader) {
+            lead(batch);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private void lead(Batch batch) {
+        try {
+            batch.full.await(window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            // Run the batch right away; the callers waiting on it must still be answered
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (pending == batch) {
+                pending = null;
+            }
+        }
+        // No id joins once the batch is closed, so it is safe to read without the lock
+        try {
+            List<Product> rows = primaryReads.read(() -> productRepository.findActiveByIds(batch.results.keySet()));
+            Map<Long, ProductDTO> found = rows.stream()
+                    .collect(Collectors.toMap(Product::getId, productMapper::toDTO));
+            meterRegistry.summary(BATCH_SIZE).record(batch.results.size());
+            batch.results.forEach((id, result) -> result.complete(Optional.ofNullable(found.get(id))));
+            log.debug("Loaded {} of {} coalesced product lookup(s)", found.size(), batch.results.size());
+        } catch (RuntimeException | Error ex) {
+            batch.results.values().forEach(result -> result.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * The lookups collected for one query, one result per distinct id.
+     */
+    private static final class Batch {
+
+        private final Map<Long, CompletableFuture<Optional<ProductDTO>>> results = new LinkedHashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+}
@@ -0,0 +1,79 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.outbox.ProductEventSink;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ProductOutboxRelay {
+
+    public static final String RELAYED = "product.outbox.relayed";
+    public static final String LAG = "product.outbox.lag";
+    public static final String FAILURES = "product.outbox.failures";
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductEventSink productEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Drains the outbox into the sink, one batch per transaction, until it is empty or the run's batch limit is
+     * reached. Batches lock their rows with SKIP LOCKED, so several instances can relay at once. A failed batch
+     * stays in the outbox and ends the run; the next run retries it.
+     */
+    @Scheduled(initialDelayString = "${app.outbox.relay.initial-delay:5s}", fixedDelayString = "${app.outbox.relay.interval:1s}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<ProductOutboxEvent> events;
+            try {
+                events = transactionTemplate.execute(status -> {
+                    List<ProductOutboxEvent> claimed = productOutboxRepository.claim(batchSize);
+                    if (!claimed.isEmpty()) {
+                        productEventSink.publish(claimed);
+                    }
+                    return claimed;
+                });
+            } catch (RuntimeException ex) {
+                meterRegistry.counter(FAILURES).increment();
+                log.warn("Relaying product outbox events failed; retrying next run", ex);
+                return;
+            }
+            record(events);
+            if (events == null || events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void record(List<ProductOutboxEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        meterRegistry.counter(RELAYED).increment(events.size());
+        // Lag is the time from the write to the sink taking its event
+        events.forEach(event -> meterRegistry.timer(LAG).record(Duration.between(event.createdOn(), now)));
+        log.debug("Relayed {} product events", events.size());
+    }
+}
@@ -0,0 +1,168 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductPriceRangeService {
+
+    public static final String WINDOW_OUTCOMES = "product.price.window";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final PrimaryReads primaryReads;
+
+    @Value("${app.cache.expensive-products.bucket-width:10}")
+    private Money bucketWidth;
+
+    @Value("${app.cache.expensive-products.window-rows:200}")
+    private int windowRows;
+
+    @Value("${app.cursor.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Retrieves active products priced above minPrice and up to maxPrice, ordered by price, one keyset page
+     * at a time. A cursor's direction takes precedence over the requested one. Pages are served from the
+     * catalog snapshot when enabled, else from the cached window of the start price's bucket when it can
+     * answer them, otherwise from the price index. The size must be between 1 and app.cursor.max-page-size.
+     */
+    public CursorPageDTO<ProductDTO> getProductsByPrice(Money minPrice, Money maxPrice, Sort.Direction direction,
+                                                        String cursor, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidCursorException("Cursor page size must be between 1 and " + maxPageSize);
+        }
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        if (after != null && after.sortField() != ProductSortField.PRICE) {
+            throw new InvalidCursorException("Cursor was not issued for a price query");
+        }
+        Sort.Direction sortDirection = after != null ? after.direction() : direction;
+
+        List<ProductDTO> rows = productCatalogSnapshot.findByPrice(minPrice, maxPrice, sortDirection, after, size + 1)
+                .orElse(null);
+        String outcome = "snapshot";
+        if (rows == null) {
+            rows = fromWindow(minPrice, maxPrice, sortDirection, after, size);
+            outcome = rows != null ? "window" : "index";
+        }
+        meterRegistry.counter(WINDOW_OUTCOMES, "outcome", outcome).increment();
+        if (rows == null) {
+            rows = productRepository.findActiveByPrice(minPrice, maxPrice, sortDirection, after, size + 1).stream()
+                    .map(productMapper::toDTO)
+                    .toList();
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ProductDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ProductDTO last = content.get(content.size() - 1);
+            nextCursor = new ProductCursor(ProductSortField.PRICE, sortDirection, PriceWindow.priceOf(last), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<ProductDTO>builder()
+                .content(List.copyOf(content))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Reads up to size + 1 rows from the window of the bucket holding the start position. Returns null
+     * when the window runs out before the page is full without having reached the end of the range.
+     */
+    private List<ProductDTO> fromWindow(Money minPrice, Money maxPrice, Sort.Direction direction,
+                                        ProductCursor after, int size) {
+        if (size >= windowRows) {
+            return null;
+        }
+        boolean ascending = direction.isAscending();
+        Money afterPrice = after != null ? (Money) after.value() : null;
+        Money start = afterPrice != null ? afterPrice : ascending ? minPrice : maxPrice;
+        PriceWindow window = window(new PriceWindow.Key(direction, bucketBound(start, ascending)));
+
+        Money lower = ascending ? minPrice : maxPrice;
+        Money upper = ascending ? maxPrice : minPrice;
+        List<ProductDTO> page = new ArrayList<>(size + 1);
+        for (ProductDTO row : window.rows()) {
+            Money price = PriceWindow.priceOf(row);
+            if (lower != null && (ascending ? price.compareTo(lower) <= 0 : price.compareTo(lower) > 0)) {
+                continue;
+            }
+            if (after != null && !isPast(price, row.getId(), afterPrice, after.id(), ascending)) {
+                continue;
+            }
+            if (upper != null && (ascending ? price.compareTo(upper) > 0 : price.compareTo(upper) <= 0)) {
+                return page;
+            }
+            page.add(row);
+            if (page.size() > size) {
+                return page;
+            }
+        }
+        return window.exhausted() ? page : null;
+    }
+
+    private PriceWindow window(PriceWindow.Key key) {
+        Cache cache = cacheManager.getCache(CacheConfig.EXPENSIVE_PRODUCTS_CACHE);
+        return cache == null ? loadWindow(key) : cache.get(key, () -> loadWindow(key));
+    }
+
+    private PriceWindow loadWindow(PriceWindow.Key key) {
+        log.debug("Loading {} price window for bound {}", key.direction(), key.bound());
+        Money minPrice = key.direction().isAscending() ? key.bound() : null;
+        Money maxPrice = key.direction().isAscending() ? null : key.bound();
+        // Cached, so read from the primary: a lagging replica's rows would be served until the window expires
+        List<ProductDTO> rows = primaryReads.read(() -> productRepository.findActiveByPrice(
+                        minPrice, maxPrice, key.direction(), null, windowRows)).stream()
+                .map(productMapper::toDTO)
+                .toList();
+        return new PriceWindow(key.direction(), key.bound(), rows, rows.size() < windowRows);
+    }
+
+    /**
+     * Rounds a start price to its bucket bound: the multiple of the bucket width just below it for ascending
+     * scans, at or above it for descending ones. Buckets are half-open, (bound, bound + width] ascending.
+     */
+    Money bucketBound(Money price, boolean ascending) {
+        if (price == null) {
+            return null;
+        }
+        long width = bucketWidth.cents();
+        long ceiling = -Math.floorDiv(-price.cents(), width) * width;
+        return Money.ofCents(ascending ? ceiling - width : ceiling);
+    }
+
+    private static boolean isPast(Money price, Long id, Money afterPrice, Long afterId, boolean ascending) {
+        int comparison = price.compareTo(afterPrice);
+        if (comparison == 0) {
+            comparison = id.compareTo(afterId);
+        }
+        return ascending ? comparison > 0 : comparison < 0;
+    }
+}
@@ -0,0 +1,60 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.exception.InvalidSearchException;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSearchMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    @Value("${app.search.max-query-length:200}")
+    private int maxQueryLength;
+
+    @Value("${app.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-candidates:1000}")
+    private int maxCandidates;
+
+    /**
+     * Searches active products by relevance, one page at a time. Pages are slices: whether another page
+     * follows is known, the total is not, so deep result sets never cost a count. Pages reach no deeper than
+     * app.search.max-candidates results, the size of the candidate set a search ranks.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> searchProducts(String query, String mode, int page, int size) {
+        String trimmed = query == null ? "" : query.strip();
+        if (trimmed.isEmpty()) {
+            throw new InvalidSearchException("Search query must not be blank");
+        }
+        if (trimmed.length() > maxQueryLength) {
+            throw new InvalidSearchException("Search query must be at most " + maxQueryLength + " characters");
+        }
+        ProductSearchMode searchMode = ProductSearchMode.fromName(mode)
+                .orElseThrow(() -> new InvalidSearchException("Unsupported search mode: " + mode));
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new InvalidSearchException("Page must be at least 0 and size between 1 and " + maxPageSize);
+        }
+        if ((long) page * size + size > maxCandidates) {
+            throw new InvalidSearchException("Search pages reach at most the first " + maxCandidates + " results");
+        }
+
+        log.debug("Searching products ({}) for '{}'", searchMode, trimmed);
+        return productRepository.searchActive(trimmed, searchMode, PageRequest.of(page, size))
+                .map(productMapper::toDTO);
+    }
+}
@@ -1,23 +1,62 @@
 package cyber.grid.cyberGridChallenge.service;
 
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.BulkItemResultDTO;
+import cyber.grid.cyberGridChallenge.dto.BulkItemStatus;
+import cyber.grid.cyberGridChallenge.dto.BulkResultDTO;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.ProductBatchDTO;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductBulkUpdateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
 import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
 import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
 import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductPriceChange;
 import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import cyber.grid.cyberGridChallenge.repository.UpdatedProduct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.exception.InvalidLookupException;
+import cyber.grid.cyberGridChallenge.exception.InvalidSortException;
+import cyber.grid.cyberGridChallenge.exception.ProductConflictException;
 import cyber.grid.cyberGridChallenge.exception.ProductNotFoundException;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 
 @Service
 @RequiredArgsConstructor
@@ -26,75 +65,383 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final Validator validator;
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductLookupCoalescer productLookupCoalescer;
+    private final CacheManager cacheManager;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final ProductCounter productCounter;
+    private final PrimaryReads primaryReads;
+
+    @Value("${app.lookup.max-ids:500}")
+    private int maxLookupIds;
+
+    @Value("${app.cursor.max-page-size:100}")
+    private int maxCursorPageSize;
 
     /**
-     * Creates a new product with the provided details.
+     * Creates a new product with the provided details. Like every write here, it adds a change event to the
+     * outbox in the same transaction.
      */
+    @Transactional
     public ProductDTO createProduct(ProductCreateDTO productCreateDTO) {
         log.info("Creating new product: {}", productCreateDTO.getName());
         Product product = productMapper.toEntity(productCreateDTO);
-        Product savedProduct = productRepository.save(product);
+        // Flushed so the outbox statement sees the row
+        Product savedProduct = productRepository.saveAndFlush(product);
+        productOutboxRepository.append(ProductChangeType.CREATED, List.of(savedProduct.getId()));
+        productCacheInvalidator.evictPriceWindows(savedProduct.getPrice());
+        productCounter.invalidate();
         log.info("Product created successfully with id: {}", savedProduct.getId());
         return productMapper.toDTO(savedProduct);
     }
 
     /**
-     * Retrieves all active products with pagination and sorting.
+     * Retrieves all active products with pagination and sorting, from the catalog snapshot when it can serve
+     * the page. Pages are read in the order of a (field, id) index, see {@link #indexedPage}, and their
+     * total comes from {@link ProductCounter}.
+     */
+    @Transactional(readOnly = true)
+    public CountedPage<ProductDTO> getAllProducts(Pageable pageable) {
+        Pageable indexed = indexedPage(pageable, false);
+        return productCatalogSnapshot.findAll(indexed)
+                .map(ProductService::snapshotPage)
+                .orElseGet(() -> productCounter.page(productRepository.findAllActive(indexedPage(pageable, true)).stream()
+                        .map(productMapper::toDTO)
+                        .toList(), indexed));
+    }
+
+    private static <T> CountedPage<T> snapshotPage(Page<T> page) {
+        return new CountedPage<>(page.getContent(), page.getPageable(), page.getTotalElements(), ProductCountMode.SNAPSHOT);
+    }
+
+    /**
+     * Rewrites a page request into the order of the partial (field, id) index of its sort field, so the
+     * database reads a range of the index instead of sorting every active row: each field is checked against
+     * {@link ProductSortField} and id is appended as the tie-break, in the last field's direction. Unsorted
+     * pages read in id order. Fields are named by sort expression for native queries (names byte-wise, as the
+     * catalog snapshot orders them) and by property otherwise.
      */
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findAllActive(ProductStatus.DELETED.name(), pageable);
-        return products.map(productMapper::toDTO);
+    static Pageable indexedPage(Pageable pageable, boolean byColumn) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction direction = Sort.Direction.ASC;
+        boolean tieBroken = false;
+        for (Sort.Order order : pageable.getSort()) {
+            ProductSortField field = ProductSortField.fromProperty(order.getProperty())
+                    .orElseThrow(() -> new InvalidSortException("Unsupported sort field: " + order.getProperty()));
+            if (!byColumn) {
+                Sort.Order indexed = new Sort.Order(order.getDirection(), field.getProperty());
+                orders.add(order.isIgnoreCase() ? indexed.ignoreCase() : indexed);
+            } else if (order.isIgnoreCase()) {
+                orders.add(new Sort.Order(order.getDirection(), field.getColumn()).ignoreCase());
+            } else {
+                // A trusted expression, so Spring Data appends it as is
+                orders.add(JpaSort.unsafe(order.getDirection(), field.getSortExpression()).toList().get(0));
+            }
+            direction = order.getDirection();
+            tieBroken |= field == ProductSortField.ID;
+        }
+        if (!tieBroken) {
+            ProductSortField id = ProductSortField.ID;
+            orders.add(new Sort.Order(direction, byColumn ? id.getColumn() : id.getProperty()));
+        }
+        Sort sort = Sort.by(orders);
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    /**
+     * Retrieves active products using keyset pagination. When a cursor is given, its sort field and
+     * direction take precedence over the requested ones so a client cannot change order mid-scroll.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> getProductsByCursor(String sort, Sort.Direction direction, String cursor, int size) {
+        if (size < 1 || size > maxCursorPageSize) {
+            throw new InvalidCursorException("Cursor page size must be between 1 and " + maxCursorPageSize);
+        }
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        ProductSortField sortField = after != null ? after.sortField() : ProductSortField.fromProperty(sort)
+                .orElseThrow(() -> new InvalidCursorException("Cursor pagination does not support sort field: " + sort));
+        Sort.Direction sortDirection = after != null ? after.direction() : direction;
+
+        Slice<Product> slice = productRepository.findActiveSlice(sortField, sortDirection, after, size);
+        String nextCursor = slice.hasNext()
+                ? ProductCursor.of(sortField, sortDirection, slice.getContent().get(slice.getNumberOfElements() - 1)).encode()
+                : null;
+
+        return CursorPageDTO.<ProductDTO>builder()
+                .content(slice.map(productMapper::toDTO).getContent())
+                .size(size)
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     /**
-     * Retrieves a product by its ID, excluding deleted products.
+     * Retrieves a product by its ID, excluding deleted products. Cache misses arriving together are loaded
+     * in one query; no transaction is held here, so waiting for the batch does not hold a connection. Concurrent
+     * misses of the same id share one load (sync).
      */
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "#id", sync = true)
     public ProductDTO getProductById(Long id) {
         log.debug("Fetching product with id: {}", id);
-        Product product = productRepository.findByIdAndStatusNot(id, ProductStatus.DELETED)
+        ProductDTO product = productLookupCoalescer.find(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
-        
+
         log.debug("Product found: {}", product.getName());
-        return productMapper.toDTO(product);
+        return product;
     }
 
     /**
-     * Updates an existing product with new details.
+     * Retrieves many products by id at once, in request order and without duplicates. Cached products are
+     * served from the product cache and the rest are loaded from the primary with one query and cached; unknown
+     * and deleted ids are reported as not found.
      */
-    @CacheEvict(value = "expensiveProducts", allEntries = true)
-    public ProductDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) {
-        Product existingProduct = productRepository.findByIdAndStatusNot(id, ProductStatus.DELETED)
-                .orElseThrow(() -> new ProductNotFoundException(id));
+    public ProductBatchDTO getProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > maxLookupIds) {
+            throw new InvalidLookupException("At most " + maxLookupIds + " ids can be fetched at once");
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        Map<Long, ProductDTO> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO cached = cache != null ? cache.get(id, ProductDTO.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Product product : primaryReads.read(() -> productRepository.findActiveByIds(misses))) {
+                ProductDTO dto = productMapper.toDTO(product);
+                found.put(product.getId(), dto);
+                if (cache != null) {
+                    cache.put(product.getId(), dto);
+                }
+            }
+        }
+        log.debug("Fetched {} of {} products ({} from cache)", found.size(), requested.size(), requested.size() - misses.size());
 
-        productMapper.updateFromDto(productUpdateDTO, existingProduct);
+        List<ProductDTO> content = new ArrayList<>(found.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO product = found.get(id);
+            if (product != null) {
+                content.add(product);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new ProductBatchDTO(content, notFound);
+    }
 
-        Product updatedProduct = productRepository.save(existingProduct);
+    /**
+     * Updates an existing product with new details in a single conditional statement. When the DTO carries
+     * the version the client read, a product changed since then is rejected instead of overwritten.
+     */
+    @Transactional
+    @CacheEvict(value = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) {
+        Product changes = productMapper.toEntity(productUpdateDTO);
+        changes.setId(id);
 
-        return productMapper.toDTO(updatedProduct);
+        UpdatedProduct updated = productRepository.updateIfCurrent(changes, productUpdateDTO.getVersion(), LocalDateTime.now())
+                .orElseThrow(() -> writeRejected(id, productUpdateDTO.getVersion()));
+        productOutboxRepository.append(ProductChangeType.UPDATED, List.of(id));
+        // @CacheEvict evicts this instance's entry after commit; this reaches the other instances
+        productCacheInvalidator.evictProducts(List.of(id));
+        productCacheInvalidator.evictPriceWindows(updated.previousPrice(), updated.product().getPrice());
+        if (productUpdateDTO.getStatus() == ProductStatus.DELETED) {
+            productCounter.invalidate();
+        }
+
+        return productMapper.toDTO(updated.product());
     }
 
     /**
-     * Soft deletes a product by setting its status to DELETED.
+     * Soft deletes a product by setting its status to DELETED, only at the given version when one is passed.
      */
-    @CacheEvict(value = "expensiveProducts", allEntries = true)
-    public void deleteProduct(Long id) {
+    @Transactional
+    @CacheEvict(value = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public void deleteProduct(Long id, Long version) {
         log.info("Soft deleting product with id: {}", id);
-        Product product = productRepository.findByIdAndStatusNot(id, ProductStatus.DELETED)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-        
-        product.setStatus(ProductStatus.DELETED);
-        productRepository.save(product);
+        ProductPriceChange deleted = productRepository.softDeleteIfCurrent(id, version, LocalDateTime.now())
+                .orElseThrow(() -> writeRejected(id, version));
+        productOutboxRepository.append(ProductChangeType.DELETED, List.of(id));
+        productCacheInvalidator.evictProducts(List.of(id));
+        productCacheInvalidator.evictPriceWindows(deleted.price());
+        productCounter.invalidate();
         log.info("Product soft deleted successfully");
     }
 
     /**
-     * Retrieves products with price above the specified minimum.
+     * Creates products in batched inserts. Invalid items are reported and skipped; valid ones are saved.
+     */
+    @Transactional
+    public BulkResultDTO createProducts(List<ProductCreateDTO> productCreateDTOs) {
+        log.info("Bulk creating {} products", productCreateDTOs.size());
+        BulkItemResultDTO[] items = new BulkItemResultDTO[productCreateDTOs.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productCreateDTOs.size(); i++) {
+            String violations = violations(productCreateDTOs.get(i));
+            if (violations != null) {
+                items[i] = item(i, null, BulkItemStatus.INVALID, violations);
+            } else {
+                indexes.add(i);
+                products.add(productMapper.toEntity(productCreateDTOs.get(i)));
+            }
+        }
+
+        List<Product> savedProducts = productRepository.insertAll(products);
+        for (int i = 0; i < savedProducts.size(); i++) {
+            items[indexes.get(i)] = item(indexes.get(i), savedProducts.get(i).getId(), BulkItemStatus.CREATED, null);
+        }
+        productOutboxRepository.append(ProductChangeType.CREATED, savedProducts.stream().map(Product::getId).toList());
+        productCacheInvalidator.evictPriceWindows(savedProducts.stream().map(Product::getPrice).toList());
+        productCounter.invalidate();
+        return BulkResultDTO.of(List.of(items));
+    }
+
+    /**
+     * Updates products with set-based statements. Invalid items, repeated ids, ids that are missing or deleted
+     * and items whose version is no longer current are reported; only the first item for an id is applied.
+     */
+    @Transactional
+    public BulkResultDTO updateProducts(List<ProductBulkUpdateDTO> productBulkUpdateDTOs) {
+        log.info("Bulk updating {} products", productBulkUpdateDTOs.size());
+        BulkItemResultDTO[] items = new BulkItemResultDTO[productBulkUpdateDTOs.size()];
+        Map<Long, Integer> firstIndexes = new HashMap<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productBulkUpdateDTOs.size(); i++) {
+            ProductBulkUpdateDTO dto = productBulkUpdateDTOs.get(i);
+            String violations = violations(dto);
+            if (violations != null) {
+                items[i] = item(i, dto == null ? null : dto.getId(), BulkItemStatus.INVALID, violations);
+                continue;
+            }
+            Integer first = firstIndexes.putIfAbsent(dto.getId(), i);
+            if (first != null) {
+                items[i] = item(i, dto.getId(), BulkItemStatus.DUPLICATE, "Id already updated by item " + first);
+            } else {
+                products.add(productMapper.toEntity(dto));
+            }
+        }
+
+        Map<Long, ProductPriceChange> changes = index(
+                productRepository.updateAll(products, LocalDateTime.now()));
+        Map<Long, Long> currentVersions = currentVersions(products.stream()
+                .filter(product -> product.getVersion() != null && !changes.containsKey(product.getId()))
+                .map(Product::getId)
+                .toList());
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                ProductBulkUpdateDTO dto = productBulkUpdateDTOs.get(i);
+                Long id = dto.getId();
+                Long currentVersion = currentVersions.get(id);
+                if (changes.containsKey(id)) {
+                    items[i] = item(i, id, BulkItemStatus.UPDATED, null);
+                } else if (currentVersion != null) {
+                    items[i] = item(i, id, BulkItemStatus.CONFLICT,
+                            new ProductConflictException(id, dto.getVersion(), currentVersion).getMessage());
+                } else {
+                    items[i] = item(i, id, BulkItemStatus.NOT_FOUND, "Product not found with id: " + id);
+                }
+            }
+        }
+        productOutboxRepository.append(ProductChangeType.UPDATED, changes.keySet());
+        evict(changes);
+        if (products.stream().anyMatch(product -> product.getStatus() == ProductStatus.DELETED)) {
+            productCounter.invalidate();
+        }
+        return BulkResultDTO.of(List.of(items));
+    }
+
+    /**
+     * Current versions of the still-active products among items that were not applied, telling version
+     * conflicts from missing ids. Only queried when versioned items failed.
+     */
+    private Map<Long, Long> currentVersions(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findActiveByIds(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getVersion));
+    }
+
+    /**
+     * Soft deletes products with set-based statements. Ids that are missing or already deleted are reported.
      */
-    @Cacheable(value = "expensiveProducts", key = "#minPrice")
-    public List<ProductDTO> getExpensiveProducts(Double minPrice) {
-        List<Product> products = productRepository.findExpensiveProducts(BigDecimal.valueOf(minPrice), ProductStatus.DELETED.name());
-        return products.stream()
-                .map(productMapper::toDTO)
-                .toList();
+    @Transactional
+    public BulkResultDTO deleteProducts(List<Long> ids) {
+        log.info("Bulk soft deleting {} products", ids.size());
+        Set<Long> distinctIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, ProductPriceChange> changes = index(
+                productRepository.softDeleteAll(distinctIds, LocalDateTime.now()));
+
+        List<BulkItemResultDTO> items = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            items.add(changes.containsKey(id)
+                    ? item(i, id, BulkItemStatus.DELETED, null)
+                    : item(i, id, BulkItemStatus.NOT_FOUND, "Product not found with id: " + id));
+        }
+        productOutboxRepository.append(ProductChangeType.DELETED, changes.keySet());
+        evict(changes);
+        productCounter.invalidate();
+        return BulkResultDTO.of(items);
+    }
+
+    private String violations(Object dto) {
+        if (dto == null) {
+            return "Item is required";
+        }
+        return describe(validator.validate(dto));
+    }
+
+    /**
+     * Formats constraint violations as "field: message" pairs, or returns null when there are none.
+     */
+    static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Explains a conditional write that matched no row: a version conflict if the product is still active,
+     * otherwise not found. Only runs on the failure path.
+     */
+    private RuntimeException writeRejected(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return new ProductNotFoundException(id);
+        }
+        return productRepository.findByIdAndStatusNot(id, ProductStatus.DELETED)
+                .<RuntimeException>map(current -> new ProductConflictException(id, expectedVersion, current.getVersion()))
+                .orElseGet(() -> new ProductNotFoundException(id));
+    }
+
+    private static BulkItemResultDTO item(int index, Long id, BulkItemStatus status, String message) {
+        return BulkItemResultDTO.builder().index(index).id(id).status(status).message(message).build();
+    }
+
+    private static Map<Long, ProductPriceChange> index(List<ProductPriceChange> changes) {
+        return changes.stream().collect(Collectors.toMap(ProductPriceChange::id, Function.identity(), (a, b) -> a));
+    }
+
+    private void evict(Map<Long, ProductPriceChange> changes) {
+        productCacheInvalidator.evictProducts(changes.keySet());
+        productCacheInvalidator.evictPriceWindows(changes.values().stream()
+                .flatMap(change -> Stream.of(change.previousPrice(), change.price()))
+                .toList());
     }
 }
@@ -0,0 +1,232 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ChangedProduct;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import cyber.grid.cyberGridChallenge.service.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogSnapshotTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final long HORIZON = 700L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ObjectProvider<ReplicaLagGuard> replicaLagGuard;
+
+    private ProductCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = snapshot(true);
+        lenient().when(productRepository.findChangeHorizon()).thenReturn(HORIZON);
+        lenient().when(productRepository.countActive()).thenReturn(4L);
+        lenient().doAnswer(invocation -> {
+            Consumer<Product> action = invocation.getArgument(0);
+            List.of(product(1, "Pear", 300), product(2, "Apple", 100), product(3, "Fig", 200), product(4, "Kiwi", 100))
+                    .forEach(action);
+            return null;
+        }).when(productRepository).forEachActive(any());
+    }
+
+    @Test
+    void findAll_BeforeFirstRefresh_ReturnsEmpty() {
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2)).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void findAll_SortedByName_ServesPage() {
+        snapshot.refresh();
+
+        Page<ProductDTO> page = snapshot.findAll(PageRequest.of(0, 3, Sort.by("name"))).orElseThrow();
+
+        assertEquals(List.of("Apple", "Fig", "Kiwi"), page.getContent().stream().map(ProductDTO::getName).toList());
+        assertEquals(4, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void findAll_Descending_ServesReversedPages() {
+        snapshot.refresh();
+
+        Page<ProductDTO> first = snapshot.findAll(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price"))).orElseThrow();
+        Page<ProductDTO> second = snapshot.findAll(PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "price"))).orElseThrow();
+
+        assertEquals(List.of(1L, 3L, 4L), first.getContent().stream().map(ProductDTO::getId).toList());
+        assertEquals(List.of(2L), second.getContent().stream().map(ProductDTO::getId).toList());
+        assertTrue(snapshot.findAll(PageRequest.of(2, 3, Sort.by("price"))).orElseThrow().getContent().isEmpty());
+    }
+
+    @Test
+    void findAll_SortedByFieldThenId_ServesPage() {
+        snapshot.refresh();
+
+        Page<ProductDTO> page = snapshot.findAll(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "updatedOn", "id")))
+                .orElseThrow();
+
+        // Equal update times fall back to id order
+        assertEquals(List.of(4L, 3L, 2L), page.getContent().stream().map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    void findAll_UnsupportedSort_ReturnsEmpty() {
+        snapshot.refresh();
+
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2, Sort.by("name", "price"))).isEmpty());
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2, Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id")))).isEmpty());
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2, Sort.by(Sort.Order.asc("name").ignoreCase()))).isEmpty());
+    }
+
+    @Test
+    void findAll_PrimaryRequired_ReturnsEmpty() {
+        snapshot.refresh();
+        ReplicaLagGuard guard = mock(ReplicaLagGuard.class);
+        when(guard.isPrimaryRequired()).thenReturn(true);
+        when(replicaLagGuard.getIfAvailable()).thenReturn(guard);
+
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    void findAll_Disabled_NeverLoads() {
+        ProductCatalogSnapshot disabled = snapshot(false);
+
+        disabled.refresh();
+
+        assertTrue(disabled.findAll(PageRequest.of(0, 2)).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void refresh_AppliesChangesWrittenAfterScan() {
+        snapshot.refresh();
+        // Writes of transactions the scan may have missed are applied as changes
+        verify(productRepository).findChangedAfter(new ProductChangeCursor(HORIZON - 1, Long.MAX_VALUE), 1000);
+
+        Product deleted = product(3, "Fig", 200);
+        deleted.setStatus(ProductStatus.DELETED);
+        Product renamed = product(1, "Banana", 300);
+        when(productRepository.findChangedAfter(any(), anyInt())).thenReturn(List.of(
+                new ChangedProduct(deleted, new ProductChangeCursor(HORIZON, 3L)),
+                new ChangedProduct(renamed, new ProductChangeCursor(HORIZON + 1, 1L)))).thenReturn(List.of());
+        snapshot.refresh();
+        snapshot.refresh();
+
+        Page<ProductDTO> page = snapshot.findAll(PageRequest.of(0, 5, Sort.by("name"))).orElseThrow();
+        assertEquals(List.of("Apple", "Banana", "Kiwi"), page.getContent().stream().map(ProductDTO::getName).toList());
+        // The next refresh continues after the last change applied
+        verify(productRepository).findChangedAfter(new ProductChangeCursor(HORIZON + 1, 1L), 1000);
+        verify(productRepository).forEachActive(any());
+    }
+
+    @Test
+    void refresh_ReadsPrimary() {
+        // A lagging replica has neither the scan's horizon nor the rename yet
+        ReplicaLagGuard routing = new ReplicaLagGuard(Duration.ofSeconds(5), "X-Client-Id", 10);
+        AtomicBoolean scannedPrimary = new AtomicBoolean();
+        doAnswer(invocation -> {
+            scannedPrimary.set(routing.isPrimaryRequired());
+            invocation.<Consumer<Product>>getArgument(0).accept(product(1, "Pear", 300));
+            return null;
+        }).when(productRepository).forEachActive(any());
+        when(productRepository.findChangedAfter(any(), anyInt())).thenAnswer(invocation -> routing.isPrimaryRequired()
+                ? List.of(new ChangedProduct(product(1, "Banana", 300), new ProductChangeCursor(HORIZON, 1L)))
+                : List.of());
+
+        snapshot.refresh();
+
+        assertTrue(scannedPrimary.get());
+        Page<ProductDTO> page = snapshot.findAll(PageRequest.of(0, 5)).orElseThrow();
+        assertEquals("Banana", page.getContent().get(0).getName());
+        assertFalse(routing.isPrimaryRequired());
+    }
+
+    @Test
+    void refresh_MoreRowsThanCounted_LoadsEveryRow() {
+        // Inserts committed between the count and the scan outgrow the pre-sized columns
+        when(productRepository.countActive()).thenReturn(1L);
+
+        snapshot.refresh();
+
+        Page<ProductDTO> page = snapshot.findAll(PageRequest.of(0, 5, Sort.by("name"))).orElseThrow();
+        assertEquals(List.of("Apple", "Fig", "Kiwi", "Pear"), page.getContent().stream().map(ProductDTO::getName).toList());
+        verify(productRepository).countActive();
+    }
+
+    @Test
+    void refresh_ScanFails_KeepsServingDatabase() {
+        doThrow(new IllegalStateException("down")).when(productRepository).forEachActive(any());
+
+        snapshot.refresh();
+
+        assertTrue(snapshot.findAll(PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    void findByPrice_ServesRangeInBothDirections() {
+        snapshot.refresh();
+
+        assertEquals(List.of(3L, 1L), ids(snapshot.findByPrice(Money.ofCents(100), null, Sort.Direction.ASC, null, 5)));
+        assertEquals(List.of(3L, 4L), ids(snapshot.findByPrice(null, Money.ofCents(200), Sort.Direction.DESC, null, 2)));
+        assertEquals(List.of(4L, 3L), ids(snapshot.findByPrice(null, null, Sort.Direction.ASC,
+                new ProductCursor(ProductSortField.PRICE, Sort.Direction.ASC, Money.ofCents(100), 2L), 2)));
+        assertEquals(List.of(2L), ids(snapshot.findByPrice(null, null, Sort.Direction.DESC,
+                new ProductCursor(ProductSortField.PRICE, Sort.Direction.DESC, Money.ofCents(100), 4L), 5)));
+        assertEquals(List.of(), ids(snapshot.findByPrice(Money.ofCents(300), null, Sort.Direction.ASC, null, 5)));
+    }
+
+    private static List<Long> ids(Optional<List<ProductDTO>> rows) {
+        return rows.orElseThrow().stream().map(ProductDTO::getId).toList();
+    }
+
+    private ProductCatalogSnapshot snapshot(boolean enabled) {
+        return new ProductCatalogSnapshot(productRepository, replicaLagGuard, PrimaryReads.withoutTransaction(),
+                new SimpleMeterRegistry(), enabled, 10_000, Duration.ofHours(1), Duration.ofMinutes(1));
+    }
+
+    private static Product product(long id, String name, long cents) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description("Description of " + name)
+                .price(Money.ofCents(cents))
+                .status(ProductStatus.ACTIVE)
+                .createdOn(T0.minusDays(1))
+                .updatedOn(T0.minusHours(1))
+                .version(1L)
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package cyber.grid.cyberGridChallenge.catalog;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void of_ReadsRowsBackInEveryOrder() {
+        ProductCatalog catalog = ProductCatalog.of(columns(List.of(
+                product(1, "Pear", 300, "Green"),
+                product(2, "apple", 100, null),
+                product(3, "Äpfel", 200, "Red"),
+                product(4, "Banana", 100, "Yellow"))));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(catalog, CatalogSort.ID));
+        // Code point order: upper case before lower case before accented letters
+        assertEquals(List.of(4L, 1L, 2L, 3L), ids(catalog, CatalogSort.NAME));
+        assertEquals(List.of(2L, 4L, 3L, 1L), ids(catalog, CatalogSort.PRICE));
+
+        List<ProductDTO> rows = new ArrayList<>();
+        catalog.forEach(CatalogSort.ID, 1, 3, (columns, row) -> rows.add(columns.toDTO(row)));
+        assertEquals(List.of(
+                ProductDTO.builder().id(2L).name("apple").price(Money.ofCents(100)).status(ProductStatus.ACTIVE)
+                        .version(1L).updatedOn(CREATED).build(),
+                ProductDTO.builder().id(3L).name("Äpfel").description("Red").price(Money.ofCents(200))
+                        .status(ProductStatus.ACTIVE).version(1L).updatedOn(CREATED).build()), rows);
+    }
+
+    @Test
+    void apply_ReplacesAddsAndRemovesRows() {
+        ProductCatalog catalog = ProductCatalog.of(columns(List.of(
+                product(1, "a", 100, null), product(3, "c", 300, null), product(5, "e", 500, null))));
+
+        Product deleted = product(3, "c", 300, null);
+        deleted.setStatus(ProductStatus.DELETED);
+        catalog = catalog.apply(List.of(product(1, "z", 900, null), deleted, product(4, "b", 50, null)));
+
+        assertEquals(3, catalog.size());
+        assertEquals(List.of(1L, 4L, 5L), ids(catalog, CatalogSort.ID));
+        assertEquals(List.of(4L, 5L, 1L), ids(catalog, CatalogSort.NAME));
+        assertEquals(List.of(4L, 5L, 1L), ids(catalog, CatalogSort.PRICE));
+        assertEquals(List.of(1L, 4L, 5L), ids(catalog.compact(), CatalogSort.ID));
+        assertEquals(0, catalog.compact().overlaySize());
+    }
+
+    @Test
+    void forEach_AfterRandomChanges_MatchesSortedRows() {
+        Random random = new Random(42);
+        Map<Long, Product> expected = new TreeMap<>();
+        for (long id = 1; id <= 300; id += 1 + random.nextInt(3)) {
+            expected.put(id, randomProduct(random, id));
+        }
+        ProductCatalog catalog = ProductCatalog.of(columns(new ArrayList<>(expected.values())));
+
+        for (int round = 0; round < 20; round++) {
+            List<Product> changes = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                long id = 1 + random.nextInt(400);
+                Product product = randomProduct(random, id);
+                if (random.nextInt(4) == 0) {
+                    product.setStatus(ProductStatus.DELETED);
+                    expected.remove(id);
+                } else {
+                    expected.put(id, product);
+                }
+                changes.add(product);
+            }
+            catalog = catalog.apply(changes);
+            if (round % 7 == 6) {
+                catalog = catalog.compact();
+            }
+            assertMatches(expected, catalog);
+        }
+    }
+
+    @Test
+    void rank_CountsRowsBeforeTarget() {
+        ProductCatalog catalog = ProductCatalog.of(columns(List.of(
+                product(1, "a", 100, null), product(2, "b", 200, null), product(3, "c", 200, null), product(4, "d", 400, null))));
+        catalog = catalog.apply(List.of(product(5, "e", 200, null), product(1, "a", 300, null)));
+
+        // (price, id) order: 2@200, 3@200, 5@200, 1@300, 4@400
+        assertEquals(0, catalog.rank(CatalogSort.PRICE, (columns, row) -> columns.priceCents(row) < 200));
+        assertEquals(3, catalog.rank(CatalogSort.PRICE, (columns, row) -> columns.priceCents(row) <= 200));
+        assertEquals(2, catalog.rank(CatalogSort.PRICE, (columns, row) -> columns.priceCents(row) < 200
+                || columns.priceCents(row) == 200 && columns.id(row) < 5));
+        assertEquals(5, catalog.rank(CatalogSort.PRICE, (columns, row) -> true));
+    }
+
+    private static void assertMatches(Map<Long, Product> expected, ProductCatalog catalog) {
+        assertEquals(expected.size(), catalog.size());
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        Comparator<Product> byName = Comparator.<Product, byte[]>comparing(
+                product -> product.getName().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned).thenComparing(byId);
+        Comparator<Product> byPrice = Comparator.comparing(Product::getPrice).thenComparing(byId);
+        // Missing times sort last, like PostgreSQL's nulls
+        Comparator<Product> byCreatedOn = Comparator.comparing(Product::getCreatedOn,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).thenComparing(byId);
+        Comparator<Product> byUpdatedOn = Comparator.comparing(Product::getUpdatedOn,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).thenComparing(byId);
+        Map<CatalogSort, Comparator<Product>> comparators = Map.of(
+                CatalogSort.ID, byId, CatalogSort.NAME, byName, CatalogSort.PRICE, byPrice,
+                CatalogSort.CREATED_ON, byCreatedOn, CatalogSort.UPDATED_ON, byUpdatedOn);
+        comparators.forEach((sort, comparator) -> {
+            List<Long> sorted = expected.values().stream().sorted(comparator).map(Product::getId).toList();
+            assertEquals(sorted, ids(catalog, sort), sort.name());
+            // Any window of the order reads the same rows as the full scan
+            int from = sorted.size() / 3;
+            int to = Math.min(sorted.size(), from + 17);
+            List<Long> window = new ArrayList<>();
+            catalog.forEach(sort, from, to, (columns, row) -> window.add(columns.id(row)));
+            assertEquals(sorted.subList(from, to), window, sort.name());
+        });
+        expected.values().forEach(product -> {
+            List<ProductDTO> found = new ArrayList<>();
+            catalog.forEach(CatalogSort.ID, 0, catalog.size(), (columns, row) -> {
+                if (columns.id(row) == product.getId()) {
+                    found.add(columns.toDTO(row));
+                }
+            });
+            assertEquals(1, found.size());
+            assertEquals(product.getName(), found.get(0).getName());
+            assertEquals(product.getPrice(), found.get(0).getPrice());
+        });
+    }
+
+    private static List<Long> ids(ProductCatalog catalog, CatalogSort sort) {
+        List<Long> ids = new ArrayList<>();
+        catalog.forEach(sort, 0, catalog.size(), (columns, row) -> ids.add(columns.id(row)));
+        return ids;
+    }
+
+    private static ProductColumns columns(List<Product> products) {
+        ProductColumns.Builder builder = ProductColumns.builder(true, 2);
+        products.forEach(builder::add);
+        return builder.build();
+    }
+
+    private static Product randomProduct(Random random, long id) {
+        String[] names = {"Lamp", "lamp", "Desk", "Chair", "Émail", "Zebra", "ランプ"};
+        Product product = product(id, names[random.nextInt(names.length)] + random.nextInt(5), 100 * (1 + random.nextInt(10)),
+                random.nextBoolean() ? null : "Description " + id);
+        product.setCreatedOn(CREATED.minusMinutes(random.nextInt(5)));
+        product.setUpdatedOn(random.nextInt(5) == 0 ? null : CREATED.plusNanos(1000L * random.nextInt(3)));
+        return product;
+    }
+
+    private static Product product(long id, String name, long cents, String description) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(Money.ofCents(cents))
+                .status(ProductStatus.ACTIVE)
+                .createdOn(CREATED.minusDays(1))
+                .updatedOn(CREATED)
+                .version(1L)
+                .build();
+    }
+}
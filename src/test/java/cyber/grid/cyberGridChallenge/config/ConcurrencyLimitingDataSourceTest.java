@@ -0,0 +1,102 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, "dataSource", 1, Duration.ofMillis(50));
+        dataSource.bindTo(registry);
+    }
+
+    @Test
+    void getConnection_PoolBusy_TimesOutAfterMaxWait() throws SQLException {
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getActive());
+        assertEquals(1.0, registry.get("db.limiter.timeouts").counter().count());
+        assertEquals(2, registry.get("db.limiter.wait").timer().count());
+        held.close();
+    }
+
+    @Test
+    void getConnection_WaiterProceedsWhenConnectionClosed() throws Exception {
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, "dataSource", 1, Duration.ofSeconds(5));
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (dataSource.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, dataSource.getQueueDepth());
+    }
+
+    @Test
+    void close_Twice_ReleasesPermitOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        Connection target = ((ConnectionProxy) connection).getTargetConnection();
+
+        connection.close();
+        connection.close();
+
+        verify(target, times(2)).close();
+        assertEquals(0, dataSource.getActive());
+        dataSource.getConnection();
+        assertEquals(1, dataSource.getActive());
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getActive());
+    }
+
+    @Test
+    void unwrap_DelegatesToTargetConnection() throws SQLException {
+        Connection target = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(targetDataSource.getConnection()).thenReturn(target);
+        when(target.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+        assertSame(pgConnection, dataSource.getConnection().unwrap(PGConnection.class));
+    }
+}
@@ -0,0 +1,88 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductListDTO;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductListHttpMessageConverterTest {
+
+    private final ProductListHttpMessageConverter converter = new ProductListHttpMessageConverter();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void write_MatchesJacksonForPopulatedFields() throws Exception {
+        ProductDTO product = ProductDTO.builder()
+                .id(7L)
+                .name("Café \"Deluxe\"\n")
+                .description("Line\tbreak 😀")
+                .price(Money.valueOf("-0.05"))
+                .status(ProductStatus.ACTIVE)
+                .version(3L)
+                .updatedOn(LocalDateTime.of(2024, 5, 1, 12, 30, 0))
+                .build();
+        ProductListDTO list = new ProductListDTO(List.of(product), "abc", "http://localhost/api/v1/products?cursor=abc");
+
+        JsonNode written = objectMapper.readTree(write(list));
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(list)), written);
+        assertEquals("2024-05-01T12:30:00", written.at("/content/0/updatedOn").asText());
+        assertEquals("-0.05", written.at("/content/0/price").decimalValue().toPlainString());
+    }
+
+    @Test
+    void write_OmitsNullFields() throws Exception {
+        ProductDTO product = ProductDTO.builder().id(1L).name("Bare").build();
+
+        JsonNode written = objectMapper.readTree(write(new ProductListDTO(List.of(product), null, null)));
+
+        assertEquals("{\"content\":[{\"id\":1,\"name\":\"Bare\"}]}", written.toString());
+    }
+
+    @Test
+    void write_ReusesBuffersAcrossRows() throws Exception {
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(ProductDTO.builder()
+                    .id((long) i)
+                    .price(Money.ofCents(i * 1_000_001L))
+                    .updatedOn(LocalDateTime.of(2024, 1, 1, 0, 0).plusNanos(i * 1_000L))
+                    .build());
+        }
+
+        JsonNode content = objectMapper.readTree(write(new ProductListDTO(products, null, null))).get("content");
+
+        assertEquals(100, content.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, Money.ofCents(i * 1_000_001L).toBigDecimal().compareTo(content.get(i).get("price").decimalValue()));
+            assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(products.get(i).getUpdatedOn()), content.get(i).get("updatedOn").asText());
+        }
+    }
+
+    @Test
+    void canRead_IsFalse() {
+        assertFalse(converter.canRead(ProductListDTO.class, ProductListHttpMessageConverter.MEDIA_TYPE));
+        assertTrue(converter.canWrite(ProductListDTO.class, ProductListHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    private byte[] write(ProductListDTO list) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(list, out);
+        return out.toByteArray();
+    }
+}
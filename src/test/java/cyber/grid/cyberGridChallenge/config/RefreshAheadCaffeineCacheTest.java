@@ -0,0 +1,201 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCaffeineCacheTest {
+
+    private static final Duration FRESH_FOR = Duration.ofMinutes(10);
+    private static final Duration STALE_FOR = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void get_ConcurrentMisses_LoadOnce() throws Exception {
+        RefreshAheadCaffeineCache cache = cache(0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(callers.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "product";
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("product", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_LoaderFails_WrapsException() {
+        RefreshAheadCaffeineCache cache = cache(0);
+
+        Cache.ValueRetrievalException ex = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> { throw new IllegalStateException("down"); }));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertNull(cache.getNativeCache().getIfPresent(1L));
+    }
+
+    @Test
+    void get_Stale_ServesStaleAndRefreshesOnce() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.plusSeconds(1));
+
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertEquals("v1", cache.get(1L, () -> "v3"));
+        assertEquals(1, refreshes.size());
+
+        runRefreshes();
+        assertEquals("v2", cache.get(1L, () -> "v4"));
+        assertEquals(1.0, meterRegistry.get(RefreshAheadCaffeineCache.REFRESHES).tag("reason", "stale").counter().count());
+    }
+
+    @Test
+    void get_PastStalePeriod_LoadsSynchronously() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.plus(STALE_FOR).plusSeconds(1));
+
+        assertEquals("v2", cache.get(1L, () -> "v2"));
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    void get_FreshWithLargeBeta_RefreshesEarly() {
+        RefreshAheadCaffeineCache cache = cache(1e12);
+        cache.get(1L, () -> "v1");
+        advance(Duration.ofMinutes(5));
+
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertEquals(1.0, meterRegistry.get(RefreshAheadCaffeineCache.REFRESHES).tag("reason", "early").counter().count());
+        runRefreshes();
+
+        assertEquals("v2", cache.get(1L, () -> "v3"));
+    }
+
+    @Test
+    void get_FreshWithBetaZero_NeverRefreshesEarly() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.minusSeconds(1));
+
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    void refresh_EntryEvictedMeanwhile_DoesNotRestoreIt() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.plusSeconds(1));
+        cache.get(1L, () -> "old read");
+
+        cache.evict(1L);
+        runRefreshes();
+
+        assertNull(cache.getNativeCache().getIfPresent(1L));
+    }
+
+    @Test
+    void refresh_EntryRewrittenMeanwhile_KeepsNewValue() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.plusSeconds(1));
+        cache.get(1L, () -> "old read");
+
+        cache.put(1L, "written");
+        runRefreshes();
+
+        assertEquals("written", cache.get(1L, () -> "v3"));
+    }
+
+    @Test
+    void refresh_LoaderFails_KeepsServingStaleEntry() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.get(1L, () -> "v1");
+        advance(FRESH_FOR.plusSeconds(1));
+        cache.get(1L, () -> { throw new IllegalStateException("down"); });
+
+        runRefreshes();
+
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void lookup_StaleEntry_ReturnsNull() {
+        RefreshAheadCaffeineCache cache = cache(0);
+        cache.put(1L, "v1");
+        assertEquals("v1", cache.get(1L, String.class));
+
+        advance(FRESH_FOR.plusSeconds(1));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void constructor_WithoutExpireAfterWrite_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadCaffeineCache("products",
+                Caffeine.newBuilder().build(), FRESH_FOR, 1.0, Runnable::run, meterRegistry));
+    }
+
+    private RefreshAheadCaffeineCache cache(double earlyRefreshBeta) {
+        return new RefreshAheadCaffeineCache("products", Caffeine.newBuilder()
+                .ticker(now::get)
+                .executor(Runnable::run)
+                .expireAfterWrite(FRESH_FOR.plus(STALE_FOR))
+                .build(), FRESH_FOR, earlyRefreshBeta, refreshes::add, meterRegistry);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        pending.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,79 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaLagGuardTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ReplicaLagGuard guard = new ReplicaLagGuard(Duration.ofSeconds(5), "X-Client-Id", 100, nanos::get);
+
+    @Test
+    void doFilter_ReadWithoutRecentWrite_AllowsReplica() throws Exception {
+        assertFalse(primaryRequiredDuring(request("GET", "alice")));
+    }
+
+    @Test
+    void doFilter_Write_RequiresPrimaryDuringAndAfterRequest() throws Exception {
+        assertTrue(primaryRequiredDuring(request("PUT", "alice")));
+
+        assertTrue(primaryRequiredDuring(request("GET", "alice")));
+        assertFalse(primaryRequiredDuring(request("GET", "bob")));
+        assertFalse(guard.isPrimaryRequired());
+    }
+
+    @Test
+    void doFilter_WindowElapsed_AllowsReplicaAgain() throws Exception {
+        primaryRequiredDuring(request("POST", "alice"));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        assertFalse(primaryRequiredDuring(request("GET", "alice")));
+    }
+
+    @Test
+    void doFilter_NoClientHeader_UsesRemoteAddress() throws Exception {
+        MockHttpServletRequest write = request("DELETE", null);
+        write.setRemoteAddr("10.0.0.7");
+        primaryRequiredDuring(write);
+
+        MockHttpServletRequest read = request("GET", null);
+        read.setRemoteAddr("10.0.0.7");
+        assertTrue(primaryRequiredDuring(read));
+    }
+
+    @Test
+    void onPrimary_RestoresRequestSetting() throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        AtomicBoolean after = new AtomicBoolean(true);
+        guard.doFilter(request("GET", "alice"), new MockHttpServletResponse(), (req, res) -> {
+            pinned.set(ReplicaLagGuard.onPrimary(guard::isPrimaryRequired));
+            after.set(guard.isPrimaryRequired());
+        });
+
+        assertTrue(pinned.get());
+        assertFalse(after.get());
+        assertFalse(guard.isPrimaryRequired());
+    }
+
+    private boolean primaryRequiredDuring(MockHttpServletRequest request) throws Exception {
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        guard.doFilter(request, new MockHttpServletResponse(), (req, res) -> primaryRequired.set(guard.isPrimaryRequired()));
+        return primaryRequired.get();
+    }
+
+    private static MockHttpServletRequest request(String method, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/products/1");
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        return request;
+    }
+}
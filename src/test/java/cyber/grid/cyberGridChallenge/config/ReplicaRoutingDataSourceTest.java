@@ -0,0 +1,93 @@
+package cyber.grid.cyberGridChallenge.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private ReplicaLagGuard lagGuard;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica1.getConnection()).thenReturn(replica1Connection);
+        lenient().when(replica2.getConnection()).thenReturn(replica2Connection);
+    }
+
+    @Test
+    void getConnection_RoundRobin_AlternatesReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                Map.of("replica1", replica1, "replica2", replica2));
+
+        List<Connection> connections = List.of(dataSource.getConnection(), dataSource.getConnection(),
+                dataSource.getConnection(), dataSource.getConnection());
+
+        assertEquals(List.of(replica1Connection, replica2Connection, replica1Connection, replica2Connection), connections);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_LeastConnections_PicksIdleReplica() throws SQLException {
+        ConcurrencyLimitingDataSource busy = new ConcurrencyLimitingDataSource(replica1, "replica1", 2, Duration.ofSeconds(1));
+        ConcurrencyLimitingDataSource idle = new ConcurrencyLimitingDataSource(replica2, "replica2", 2, Duration.ofSeconds(1));
+        busy.getConnection();
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS,
+                Map.of("replica1", busy, "replica2", idle));
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertEquals(1, busy.getActive());
+        assertEquals(2, idle.getActive());
+    }
+
+    @Test
+    void getConnection_PrimaryRequired_UsesPrimary() throws SQLException {
+        when(lagGuard.isPrimaryRequired()).thenReturn(true);
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                Map.of("replica1", replica1));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica1);
+    }
+
+    @Test
+    void getConnection_NoReplicas_UsesPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS, Map.of());
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaRoutingDataSource.Selection selection, Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, new TreeMap<>(replicas), selection, lagGuard);
+    }
+}
@@ -1,28 +1,71 @@
 package cyber.grid.cyberGridChallenge.controller;
 
+import cyber.grid.cyberGridChallenge.config.ProductListHttpMessageConverter;
+import cyber.grid.cyberGridChallenge.dto.BulkItemResultDTO;
+import cyber.grid.cyberGridChallenge.dto.BulkItemStatus;
+import cyber.grid.cyberGridChallenge.dto.BulkResultDTO;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.ProductBatchDTO;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangePageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
 import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductImportResultDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductListDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductSchema;
 import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.exception.InvalidSortException;
+import cyber.grid.cyberGridChallenge.exception.InvalidLookupException;
+import cyber.grid.cyberGridChallenge.exception.InvalidSearchException;
+import cyber.grid.cyberGridChallenge.exception.ProductConflictException;
 import cyber.grid.cyberGridChallenge.exception.ProductNotFoundException;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.service.ProductChangeFeedService;
+import cyber.grid.cyberGridChallenge.service.ProductExportService;
+import cyber.grid.cyberGridChallenge.service.ProductImportService;
+import cyber.grid.cyberGridChallenge.service.ProductPriceRangeService;
+import cyber.grid.cyberGridChallenge.service.ProductSearchService;
 import cyber.grid.cyberGridChallenge.service.ProductService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,12 +77,29 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductExportService productExportService;
+
+    @Mock
+    private ProductImportService productImportService;
+
+    @Mock
+    private ProductPriceRangeService productPriceRangeService;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private ProductChangeFeedService productChangeFeedService;
+
     @InjectMocks
     private ProductController productController;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
+    private static final LocalDateTime UPDATED_ON = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
     private ProductDTO testProductDTO;
     private ProductCreateDTO testProductCreateDTO;
     private ProductUpdateDTO testProductUpdateDTO;
@@ -49,6 +109,8 @@ class ProductControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(productController)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setControllerAdvice(new cyber.grid.cyberGridChallenge.exception.GlobalExceptionHandler())
+                .setMessageConverters(new ProductListHttpMessageConverter(), new StringHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(), cborConverter())
                 .build();
         objectMapper = new ObjectMapper();
 
@@ -56,20 +118,20 @@ class ProductControllerTest {
                 .id(1L)
                 .name("Test Product")
                 .description("Test Description")
-                .price(100.00)
+                .price(Money.valueOf("100.00"))
                 .status(ProductStatus.ACTIVE)
                 .build();
 
         testProductCreateDTO = ProductCreateDTO.builder()
                 .name("Test Product")
                 .description("Test Description")
-                .price(100.00)
+                .price(Money.valueOf("100.00"))
                 .build();
 
         testProductUpdateDTO = ProductUpdateDTO.builder()
                 .name("Updated Product")
                 .description("Updated Description")
-                .price(150.00)
+                .price(Money.valueOf("150.00"))
                 .status(ProductStatus.ACTIVE)
                 .build();
     }
@@ -93,7 +155,7 @@ class ProductControllerTest {
     void createProduct_ValidationError() throws Exception {
         ProductCreateDTO invalidProduct = ProductCreateDTO.builder()
                 .name("")
-                .price(-10.0)
+                .price(Money.valueOf("-10.0"))
                 .build();
 
         mockMvc.perform(post("/api/v1/products")
@@ -107,20 +169,171 @@ class ProductControllerTest {
     @Test
     void getAllProducts_Success() throws Exception {
         Pageable pageable = org.springframework.data.domain.PageRequest.of(0, 10);
-        Page<ProductDTO> productPage = new PageImpl<>(List.of(testProductDTO), pageable, 1);
+        CountedPage<ProductDTO> productPage = new CountedPage<>(List.of(testProductDTO), pageable, 1, ProductCountMode.ESTIMATED);
         when(productService.getAllProducts(any(Pageable.class))).thenReturn(productPage);
 
         mockMvc.perform(get("/api/v1/products")
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
                 .andExpect(jsonPath("$.content[0].id").value(1))
                 .andExpect(jsonPath("$.content[0].name").value("Test Product"))
-                .andExpect(jsonPath("$.totalElements").value(1));
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.countMode").value("ESTIMATED"));
 
         verify(productService).getAllProducts(any(Pageable.class));
     }
 
+    @Test
+    void getAllProducts_UnchangedPage_ReturnsNotModified() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class)))
+                .thenReturn(new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 10), 1, ProductCountMode.EXACT));
+        String eTag = mockMvc.perform(get("/api/v1/products").param("size", "10"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("size", "10").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // The ETag describes the page loaded for the response, never a separate read
+        verify(productService, times(2)).getAllProducts(any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_EstimatedTotalMoves_KeepsETag() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(
+                new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 1), 1_000, ProductCountMode.ESTIMATED),
+                new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 1), 1_040, ProductCountMode.ESTIMATED));
+        String eTag = mockMvc.perform(get("/api/v1/products").param("size", "1"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("size", "1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllProducts_ExactTotalChanges_ChangesETag() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(
+                new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 1), 2, ProductCountMode.EXACT),
+                new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 1), 3, ProductCountMode.EXACT));
+        String eTag = mockMvc.perform(get("/api/v1/products").param("size", "1"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("size", "1").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void getAllProducts_ChangedPage_ReturnsPage() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(
+                new CountedPage<>(List.of(product(UPDATED_ON)), PageRequest.of(0, 10), 1, ProductCountMode.EXACT),
+                new CountedPage<>(List.of(product(UPDATED_ON.plusNanos(1_000))), PageRequest.of(0, 10), 1, ProductCountMode.EXACT));
+        String eTag = mockMvc.perform(get("/api/v1/products").param("size", "10"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("size", "10").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    void getAllProducts_CursorMode_ReturnsSliceWithoutTotal() throws Exception {
+        CursorPageDTO<ProductDTO> cursorPage = CursorPageDTO.<ProductDTO>builder()
+                .content(List.of(testProductDTO))
+                .size(10)
+                .hasNext(true)
+                .nextCursor("next-token")
+                .build();
+        when(productService.getProductsByCursor("name", Sort.Direction.ASC, "token", 10)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("size", "10")
+                .param("cursor", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+    }
+
+    @Test
+    void getProductList_CompactFormat_ReturnsRowsAndNextLink() throws Exception {
+        testProductDTO.setUpdatedOn(UPDATED_ON);
+        when(productService.getAllProducts(any(Pageable.class)))
+                .thenReturn(new CountedPage<>(List.of(testProductDTO), PageRequest.of(0, 1), 2, ProductCountMode.EXACT));
+
+        mockMvc.perform(get("/api/v1/products?size=1")
+                .accept(ProductListDTO.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductListDTO.MEDIA_TYPE))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].price").value(100.0))
+                .andExpect(jsonPath("$.content[0].updatedOn").value("2024-05-01T12:30:15.123456"))
+                .andExpect(jsonPath("$.content[0].version").doesNotExist())
+                .andExpect(jsonPath("$.next").value("http://localhost/api/v1/products?size=1&page=1"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getProductList_CompactFormat_UsesOwnETag() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class)))
+                .thenReturn(new CountedPage<>(List.of(testProductDTO), PageRequest.of(0, 10), 1, ProductCountMode.EXACT));
+        String eTag = mockMvc.perform(get("/api/v1/products").param("size", "10"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("size", "10")
+                .accept(ProductListDTO.MEDIA_TYPE).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void getProductList_CompactCursorMode_LinksNextCursor() throws Exception {
+        CursorPageDTO<ProductDTO> cursorPage = CursorPageDTO.<ProductDTO>builder()
+                .content(List.of(testProductDTO))
+                .size(10)
+                .hasNext(true)
+                .nextCursor("next-token")
+                .build();
+        when(productService.getProductsByCursor("name", Sort.Direction.ASC, "token", 10)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/products?size=10&cursor=token")
+                .accept(ProductListDTO.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.next").value("http://localhost/api/v1/products?size=10&cursor=next-token"));
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_CursorMode_InvalidCursor() throws Exception {
+        when(productService.getProductsByCursor(any(), any(), eq("bad"), anyInt()))
+                .thenThrow(new InvalidCursorException("Malformed cursor"));
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProducts_UnknownSortField_ReturnsBadRequest() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class)))
+                .thenThrow(new InvalidSortException("Unsupported sort field: status"));
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("sort", "status"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported sort field: status"));
+    }
+
     @Test
     void getProductById_Success() throws Exception {
         when(productService.getProductById(1L)).thenReturn(testProductDTO);
@@ -134,6 +347,99 @@ class ProductControllerTest {
         verify(productService).getProductById(1L);
     }
 
+    @Test
+    void getProductsByIds_Success() throws Exception {
+        when(productService.getProductsByIds(List.of(1L, 2L)))
+                .thenReturn(new ProductBatchDTO(List.of(testProductDTO), List.of(2L)));
+
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(2));
+    }
+
+    @Test
+    void getProductsByIdsFromBody_Success() throws Exception {
+        when(productService.getProductsByIds(List.of(1L)))
+                .thenReturn(new ProductBatchDTO(List.of(testProductDTO), List.of()));
+
+        mockMvc.perform(post("/api/v1/products/batch/get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"));
+    }
+
+    @Test
+    void getProductsByIds_TooMany_ReturnsBadRequest() throws Exception {
+        when(productService.getProductsByIds(anyList())).thenThrow(new InvalidLookupException("At most 500 ids"));
+
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductById_CborAccept_ReturnsCbor() throws Exception {
+        testProductDTO.setUpdatedOn(UPDATED_ON);
+        when(productService.getProductById(1L)).thenReturn(testProductDTO);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductDTO decoded = cborMapper().readValue(body, ProductDTO.class);
+        assertEquals(testProductDTO, decoded);
+    }
+
+    @Test
+    void getExpensiveProducts_VersionedCborAccept_ReturnsCbor() throws Exception {
+        CursorPageDTO<ProductDTO> page = CursorPageDTO.<ProductDTO>builder()
+                .content(List.of(testProductDTO)).size(10).hasNext(true).nextCursor("next").build();
+        when(productPriceRangeService.getProductsByPrice(Money.valueOf("50"), null, Sort.Direction.ASC, null, 20))
+                .thenReturn(page);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/expensive")
+                .param("minPrice", "50")
+                .accept(ProductSchema.CBOR_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductSchema.CBOR_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CursorPageDTO<ProductDTO> decoded = cborMapper().readValue(body, new TypeReference<>() { });
+        assertEquals(page, decoded);
+    }
+
+    @Test
+    void getProductById_MatchingETag_ReturnsNotModified() throws Exception {
+        testProductDTO.setUpdatedOn(UPDATED_ON);
+        when(productService.getProductById(1L)).thenReturn(testProductDTO);
+        String eTag = mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getProductById_NotModifiedSince_ReturnsNotModified() throws Exception {
+        testProductDTO.setUpdatedOn(UPDATED_ON);
+        when(productService.getProductById(1L)).thenReturn(testProductDTO);
+        String lastModified = mockMvc.perform(get("/api/v1/products/1"))
+                .andReturn().getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get("/api/v1/products/1").header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        testProductDTO.setUpdatedOn(UPDATED_ON.plusMinutes(1));
+        mockMvc.perform(get("/api/v1/products/1").header("If-Modified-Since", lastModified))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
     @Test
     void getProductById_NotFound() throws Exception {
         when(productService.getProductById(1L)).thenThrow(new ProductNotFoundException(1L));
@@ -146,15 +452,73 @@ class ProductControllerTest {
 
     @Test
     void getExpensiveProducts_Success() throws Exception {
-        when(productService.getExpensiveProducts(50.0)).thenReturn(List.of(testProductDTO));
+        CursorPageDTO<ProductDTO> page = CursorPageDTO.<ProductDTO>builder()
+                .content(List.of(testProductDTO)).size(10).hasNext(true).nextCursor("next").build();
+        when(productPriceRangeService.getProductsByPrice(Money.valueOf("50.0"), Money.valueOf("500"), Sort.Direction.DESC, null, 10))
+                .thenReturn(page);
 
         mockMvc.perform(get("/api/v1/products/expensive")
-                .param("minPrice", "50.0"))
+                .param("minPrice", "50.0")
+                .param("maxPrice", "500")
+                .param("direction", "DESC")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(productPriceRangeService).getProductsByPrice(Money.valueOf("50.0"), Money.valueOf("500"), Sort.Direction.DESC, null, 10);
+    }
+
+    @Test
+    void getProductChanges_ReturnsChangesAndCursor() throws Exception {
+        ProductChangePageDTO changes = ProductChangePageDTO.builder()
+                .changes(List.of(ProductChangeDTO.builder().type(ProductChangeType.UPDATED).product(testProductDTO).build()))
+                .cursor("mark")
+                .build();
+        when(productChangeFeedService.getChanges(null, 100)).thenReturn(changes);
+
+        mockMvc.perform(get("/api/v1/products/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].product.id").value(1))
+                .andExpect(jsonPath("$.cursor").value("mark"));
+    }
+
+    @Test
+    void getProductChanges_Wait_LongPolls() throws Exception {
+        when(productChangeFeedService.awaitChanges("mark", 10, Duration.ofSeconds(20)))
+                .thenReturn(ProductChangePageDTO.builder().changes(List.of()).cursor("mark").build());
+
+        mockMvc.perform(get("/api/v1/products/changes")
+                .param("cursor", "mark")
+                .param("size", "10")
+                .param("wait", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").isEmpty());
+
+        verify(productChangeFeedService, never()).getChanges(any(), anyInt());
+    }
+
+    @Test
+    void searchProducts_ReturnsSlice() throws Exception {
+        when(productSearchService.searchProducts("wireless mouse", "text", 0, 20))
+                .thenReturn(new SliceImpl<>(List.of(testProductDTO), PageRequest.of(0, 20), true));
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "wireless mouse"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Test Product"));
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.last").value(false));
+    }
 
-        verify(productService).getExpensiveProducts(50.0);
+    @Test
+    void searchProducts_InvalidQuery_ReturnsBadRequest() throws Exception {
+        when(productSearchService.searchProducts(" ", "name", 0, 20))
+                .thenThrow(new InvalidSearchException("Search query must not be blank"));
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", " ").param("mode", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query must not be blank"));
     }
 
     @Test
@@ -184,12 +548,26 @@ class ProductControllerTest {
         verify(productService).updateProduct(eq(1L), any(ProductUpdateDTO.class));
     }
 
+    @Test
+    void updateProduct_StaleVersion_ReturnsConflict() throws Exception {
+        testProductUpdateDTO.setVersion(2L);
+        when(productService.updateProduct(eq(1L), any(ProductUpdateDTO.class)))
+                .thenThrow(new ProductConflictException(1L, 2L, 3L));
+
+        mockMvc.perform(put("/api/v1/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductUpdateDTO)))
+                .andExpect(status().isConflict());
+
+        verify(productService).updateProduct(eq(1L), argThat(dto -> dto.getVersion() == 2L));
+    }
+
     @Test
     void updateProduct_ValidationError_BlankName() throws Exception {
         ProductUpdateDTO invalidUpdate = ProductUpdateDTO.builder()
                 .name("")
                 .description("Valid description")
-                .price(100.0)
+                .price(Money.valueOf("100.0"))
                 .status(ProductStatus.ACTIVE)
                 .build();
 
@@ -206,7 +584,7 @@ class ProductControllerTest {
         ProductUpdateDTO invalidUpdate = ProductUpdateDTO.builder()
                 .name("Valid Name")
                 .description("Valid description")
-                .price(-10.0)
+                .price(Money.valueOf("-10.0"))
                 .status(ProductStatus.ACTIVE)
                 .build();
 
@@ -235,21 +613,131 @@ class ProductControllerTest {
 
     @Test
     void deleteProduct_Success() throws Exception {
-        doNothing().when(productService).deleteProduct(1L);
+        doNothing().when(productService).deleteProduct(1L, null);
 
         mockMvc.perform(delete("/api/v1/products/1"))
                 .andExpect(status().isOk());
 
-        verify(productService).deleteProduct(1L);
+        verify(productService).deleteProduct(1L, null);
     }
 
     @Test
     void deleteProduct_NotFound() throws Exception {
-        doThrow(new ProductNotFoundException(1L)).when(productService).deleteProduct(1L);
+        doThrow(new ProductNotFoundException(1L)).when(productService).deleteProduct(1L, null);
 
         mockMvc.perform(delete("/api/v1/products/1"))
                 .andExpect(status().isNotFound());
 
-        verify(productService).deleteProduct(1L);
+        verify(productService).deleteProduct(1L, null);
+    }
+
+    @Test
+    void deleteProduct_StaleVersion_ReturnsConflict() throws Exception {
+        doThrow(new ProductConflictException(1L, 2L, 3L)).when(productService).deleteProduct(1L, 2L);
+
+        mockMvc.perform(delete("/api/v1/products/1").param("version", "2"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Product 1 was modified concurrently: expected version 2 but found 3"));
+    }
+
+    @Test
+    void createProducts_ReturnsPerItemReport() throws Exception {
+        BulkResultDTO report = BulkResultDTO.of(List.of(
+                BulkItemResultDTO.builder().index(0).id(1L).status(BulkItemStatus.CREATED).build(),
+                BulkItemResultDTO.builder().index(1).status(BulkItemStatus.INVALID).message("name: Name is required").build()));
+        when(productService.createProducts(anyList())).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testProductCreateDTO, ProductCreateDTO.builder().build()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("INVALID"));
+    }
+
+    @Test
+    void deleteProducts_ReturnsPerItemReport() throws Exception {
+        BulkResultDTO report = BulkResultDTO.of(List.of(
+                BulkItemResultDTO.builder().index(0).id(1L).status(BulkItemStatus.DELETED).build()));
+        when(productService.deleteProducts(List.of(1L))).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/products/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("DELETED"));
+    }
+
+    @Test
+    void exportProducts_StreamsNdjson() throws Exception {
+        when(productExportService.exportActiveProducts(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportProducts_Gzip() throws Exception {
+        when(productExportService.exportActiveProducts(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void importProducts_Csv_DelegatesWithCsvFormat() throws Exception {
+        ProductImportResultDTO report = ProductImportResultDTO.builder()
+                .received(1).imported(1).rejects(List.of()).build();
+        when(productImportService.importProducts(any(InputStream.class), eq(ProductImportService.Format.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content("name,price\nMouse,19.99\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        verify(productImportService).importProducts(any(InputStream.class), eq(ProductImportService.Format.CSV));
+    }
+
+    private static ProductDTO product(LocalDateTime updatedOn) {
+        return ProductDTO.builder().id(1L).name("Test Product").price(Money.valueOf("100.0"))
+                .status(ProductStatus.ACTIVE).version(1L).updatedOn(updatedOn).build();
+    }
+
+    private static MappingJackson2CborHttpMessageConverter cborConverter() {
+        MappingJackson2CborHttpMessageConverter converter = new MappingJackson2CborHttpMessageConverter(cborMapper());
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_CBOR, MediaType.parseMediaType(ProductSchema.CBOR_MEDIA_TYPE)));
+        return converter;
+    }
+
+    private static ObjectMapper cborMapper() {
+        return Jackson2ObjectMapperBuilder.cbor()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
     }
 }
@@ -0,0 +1,150 @@
+package cyber.grid.cyberGridChallenge.integration;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangePageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.service.ProductChangeFeedService;
+import cyber.grid.cyberGridChallenge.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Change feed positions against the Liquibase schema. Not transactional: a change is only readable once its
+ * write commits, and the writes under test commit in transactions of their own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ProductChangeFeedIntegrationTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeFeedService productChangeFeedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String start;
+
+    @BeforeEach
+    void setUp() {
+        ProductChangePageDTO page;
+        String cursor = null;
+        do {
+            page = productChangeFeedService.getChanges(cursor, 1000);
+            cursor = page.getCursor();
+        } while (page.isHasNext());
+        start = cursor;
+    }
+
+    @Test
+    void getChanges_ReturnsWritesInCommitOrder() {
+        ProductDTO lamp = productService.createProduct(product("Feed Lamp"));
+        ProductDTO desk = productService.createProduct(product("Feed Desk"));
+        productService.updateProduct(lamp.getId(), ProductUpdateDTO.builder()
+                .name("Feed Lamp II").description("Renamed").price(Money.valueOf("59.99")).build());
+
+        ProductChangePageDTO page = productChangeFeedService.getChanges(start, 10);
+
+        // The lamp's rename moved it behind the desk, and it appears once, as of that write
+        assertEquals(List.of(desk.getId(), lamp.getId()), ids(page));
+        assertEquals("Feed Lamp II", page.getChanges().get(1).getProduct().getName());
+        assertTrue(productChangeFeedService.getChanges(page.getCursor(), 10).getChanges().isEmpty());
+    }
+
+    @Test
+    void getChanges_SlowTransactionCommitsLate_IsNotSkipped() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ProductDTO> slow = executor.submit(() -> transactionTemplate.execute(status -> {
+                ProductDTO created = productService.createProduct(product("Slow Lamp"));
+                // Takes its transaction id now, ahead of the write below
+                jdbcTemplate.queryForObject("SELECT pg_current_xact_id()::text", String.class);
+                written.countDown();
+                await(release);
+                return created;
+            }));
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+            ProductDTO fast = productService.createProduct(product("Fast Lamp"));
+            // Held open well past any fixed settle window
+            Thread.sleep(2_500);
+
+            ProductChangePageDTO held = productChangeFeedService.getChanges(start, 10);
+            assertTrue(held.getChanges().isEmpty());
+            assertEquals(start, held.getCursor());
+
+            release.countDown();
+            ProductDTO late = slow.get(10, TimeUnit.SECONDS);
+            ProductChangePageDTO page = productChangeFeedService.getChanges(held.getCursor(), 10);
+
+            assertEquals(List.of(late.getId(), fast.getId()), ids(page));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Long> ids(ProductChangePageDTO page) {
+        return page.getChanges().stream().map(ProductChangeDTO::getProduct).map(ProductDTO::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ProductCreateDTO product(String name) {
+        return ProductCreateDTO.builder()
+                .name(name)
+                .description("Change feed integration test product")
+                .price(Money.valueOf("49.99"))
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package cyber.grid.cyberGridChallenge.integration;
+
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import cyber.grid.cyberGridChallenge.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox writes and claims against the Liquibase schema. Not transactional: events are only visible to a claim
+ * once their write commits, and the claims under test run in transactions of their own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ProductOutboxIntegrationTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product_outbox");
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void writes_AppendEventsWithRowPayload() {
+        ProductDTO created = productService.createProduct(product("Outbox Lamp"));
+        productService.deleteProduct(created.getId(), null);
+
+        List<Map<String, Object>> events = jdbcTemplate.queryForList(
+                "SELECT product_id, event_type, payload->>'name' AS name, payload->>'status' AS status "
+                        + "FROM product_outbox ORDER BY id");
+
+        assertEquals(2, events.size());
+        assertEquals(created.getId(), events.get(0).get("product_id"));
+        assertEquals("CREATED", events.get(0).get("event_type"));
+        assertEquals("Outbox Lamp", events.get(0).get("name"));
+        assertEquals("DELETED", events.get(1).get("event_type"));
+        assertEquals("DELETED", events.get(1).get("status"));
+    }
+
+    @Test
+    void rolledBackWrite_LeavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.createProduct(product("Rolled Back Lamp"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    void claim_SkipsEventsLockedByAnotherRelay() throws Exception {
+        productService.createProducts(IntStream.rangeClosed(1, 4).mapToObj(i -> product("Lamp " + i)).toList());
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<ProductOutboxEvent>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                List<ProductOutboxEvent> events = productOutboxRepository.claim(2);
+                claimed.countDown();
+                await(release);
+                return events;
+            }));
+            assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+            // Fails instead of hanging should the claim wait for the first relay's locks
+            List<ProductOutboxEvent> second = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                return productOutboxRepository.claim(10);
+            });
+            release.countDown();
+            List<ProductOutboxEvent> firstEvents = first.get(10, TimeUnit.SECONDS);
+
+            assertEquals(2, firstEvents.size());
+            assertEquals(2, second.size());
+            // The first relay took the oldest events; the second got the rest
+            assertTrue(firstEvents.get(1).id() < second.get(0).id());
+            assertEquals(0, outboxSize());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void claim_RolledBack_PutsEventsBack() {
+        productService.createProducts(List.of(product("Lamp 1"), product("Lamp 2")));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(2, productOutboxRepository.claim(10).size());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(2, outboxSize());
+    }
+
+    private int outboxSize() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM product_outbox", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ProductCreateDTO product(String name) {
+        return ProductCreateDTO.builder()
+                .name(name)
+                .description("Outbox integration test product")
+                .price(Money.valueOf("49.99"))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package cyber.grid.cyberGridChallenge.integration;
 
 import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.money.Money;
 import cyber.grid.cyberGridChallenge.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,6 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.DynamicPropertyRegistry;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -61,13 +61,14 @@ class ProductPostgresIntegrationTest {
         testProduct = Product.builder()
                 .name("PostgreSQL Integration Test Product")
                 .description("Product for PostgreSQL integration testing")
-                .price(BigDecimal.valueOf(199.99))
+                .price(Money.valueOf("199.99"))
                 .status(ProductStatus.ACTIVE)
                 .createdOn(LocalDateTime.now())
                 .updatedOn(LocalDateTime.now())
                 .build();
         
-        testProduct = productRepository.save(testProduct);
+        // Flushed so JDBC reads (batch lookups, conditional writes) see the row
+        testProduct = productRepository.saveAndFlush(testProduct);
     }
 
     @Test
@@ -95,13 +96,24 @@ class ProductPostgresIntegrationTest {
     @Test
     void getProductById_DeletedProduct_NotFound() throws Exception {
         testProduct.setStatus(ProductStatus.DELETED);
-        productRepository.save(testProduct);
+        productRepository.saveAndFlush(testProduct);
         
         mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getProductsByIds_ReturnsFoundAndNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/products/batch")
+                .param("ids", testProduct.getId() + ",99999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testProduct.getId()))
+                .andExpect(jsonPath("$.content[0].price").value(199.99))
+                .andExpect(jsonPath("$.notFound.length()").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(99999));
+    }
+
     @Test
     void getAllProducts_Success() throws Exception {
         mockMvc.perform(get("/api/v1/products")
@@ -172,6 +184,57 @@ class ProductPostgresIntegrationTest {
                 .andExpect(jsonPath("$.id").value(testProduct.getId()));
     }
 
+    @Test
+    void updateProduct_CurrentVersion_BumpsVersion() throws Exception {
+        String updateJson = """
+            {
+                "name": "Versioned Update",
+                "description": "Updated description",
+                "price": 399.99,
+                "version": %d
+            }
+            """.formatted(testProduct.getVersion());
+
+        mockMvc.perform(put("/api/v1/products/{id}", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Versioned Update"))
+                .andExpect(jsonPath("$.version").value(testProduct.getVersion() + 1));
+    }
+
+    @Test
+    void updateProduct_StaleVersion_ReturnsConflict() throws Exception {
+        String updateJson = """
+            {
+                "name": "Stale Update",
+                "description": "Updated description",
+                "price": 399.99,
+                "version": %d
+            }
+            """.formatted(testProduct.getVersion() + 5);
+
+        mockMvc.perform(put("/api/v1/products/{id}", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("PostgreSQL Integration Test Product"))
+                .andExpect(jsonPath("$.price").value(199.99));
+    }
+
+    @Test
+    void deleteProduct_StaleVersion_ReturnsConflict() throws Exception {
+        mockMvc.perform(delete("/api/v1/products/{id}", testProduct.getId())
+                .param("version", String.valueOf(testProduct.getVersion() + 5)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void updateProduct_NotFound_ReturnsNotFound() throws Exception {
         String updateJson = """
@@ -213,9 +276,45 @@ class ProductPostgresIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
-                .andExpect(jsonPath("$[0].price").value(199.99));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content[0].id").value(testProduct.getId()))
+                .andExpect(jsonPath("$.content[0].price").value(199.99))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void searchProducts_MatchesGeneratedSearchVector() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("q", "integration testing"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testProduct.getId()));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("q", "integration -postgresql"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void searchProducts_FollowsRenamesAndDeletes() throws Exception {
+        mockMvc.perform(put("/api/v1/products/{id}", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Telescope\", \"description\": \"Backyard astronomy\", \"price\": 199.99}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "telescope"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testProduct.getId()));
+        mockMvc.perform(get("/api/v1/products/search").param("q", "integration"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+
+        mockMvc.perform(delete("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "telescope"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
     }
 
     @Test
@@ -225,7 +324,7 @@ class ProductPostgresIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$").isEmpty());
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content").isEmpty());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,81 @@
+package cyber.grid.cyberGridChallenge.metrics;
+
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.exception.ProductNotFoundException;
+import cyber.grid.cyberGridChallenge.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductMetricsAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ProductMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new ProductMetricsAspect(registry, false);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void timeService_RecordsTimerTaggedByClassAndMethod() throws Throwable {
+        when(signature.getDeclaringType()).thenReturn(ProductService.class);
+        when(signature.getName()).thenReturn("getProductById");
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", aspect.timeService(joinPoint));
+
+        assertEquals(1, registry.get(ProductMetricsAspect.SERVICE_TIMER)
+                .tags("class", "ProductService", "method", "getProductById", "exception", "none").timer().count());
+        assertTrue(registry.find(ProductMetricsAspect.REPOSITORY_ROWS).summaries().isEmpty());
+    }
+
+    @Test
+    void timeService_Failure_TagsException() throws Throwable {
+        when(signature.getDeclaringType()).thenReturn(ProductService.class);
+        when(signature.getName()).thenReturn("getProductById");
+        when(joinPoint.proceed()).thenThrow(new ProductNotFoundException(1L));
+
+        assertThrows(ProductNotFoundException.class, () -> aspect.timeService(joinPoint));
+
+        assertEquals(1, registry.get(ProductMetricsAspect.SERVICE_TIMER)
+                .tag("exception", "ProductNotFoundException").timer().count());
+    }
+
+    @Test
+    void timeRepository_RecordsRowsReturned() throws Throwable {
+        when(signature.getName()).thenReturn("findAllActive", "insertAll", "findByIdAndStatusNot");
+        when(joinPoint.proceed()).thenReturn(
+                new PageImpl<>(List.of(new Product(), new Product())), List.of(new Product()), Optional.empty());
+
+        aspect.timeRepository(joinPoint);
+        aspect.timeRepository(joinPoint);
+        aspect.timeRepository(joinPoint);
+
+        assertEquals(2.0, registry.get(ProductMetricsAspect.REPOSITORY_ROWS).tag("method", "findAllActive").summary().totalAmount());
+        assertEquals(1.0, registry.get(ProductMetricsAspect.REPOSITORY_ROWS).tag("method", "insertAll").summary().totalAmount());
+        assertEquals(0.0, registry.get(ProductMetricsAspect.REPOSITORY_ROWS).tag("method", "findByIdAndStatusNot").summary().totalAmount());
+        assertEquals(1, registry.get(ProductMetricsAspect.REPOSITORY_TIMER)
+                .tags("class", "ProductRepository", "method", "findAllActive").timer().count());
+    }
+}
@@ -0,0 +1,38 @@
+package cyber.grid.cyberGridChallenge.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestStatementCounterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestStatementCounter counter = new RequestStatementCounter(registry, false);
+
+    @Test
+    void doFilter_RecordsStatementsInspectedDuringRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+
+        counter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        });
+
+        DistributionSummary summary = registry.get(RequestStatementCounter.STATEMENTS_PER_REQUEST)
+                .tags("method", "GET", "uri", "/api/products/{id}").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    void inspect_OutsideRequest_ReturnsSqlUncounted() {
+        assertEquals("select 1", counter.inspect("select 1"));
+        assertTrue(registry.find(RequestStatementCounter.STATEMENTS_PER_REQUEST).summaries().isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package cyber.grid.cyberGridChallenge.money;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void valueOf_ParsesDigitsExactly() {
+        assertEquals(1999, Money.valueOf("19.99").cents());
+        assertEquals(1990, Money.valueOf("19.9").cents());
+        assertEquals(1900, Money.valueOf("19").cents());
+        assertEquals(10, Money.valueOf(".1").cents());
+        assertEquals(-505, Money.valueOf("-5.05").cents());
+        assertEquals(15000, Money.valueOf("1.5E2").cents());
+    }
+
+    @Test
+    void valueOf_RoundsHalfUpPastCents() {
+        assertEquals(1000, Money.valueOf("9.995").cents());
+        assertEquals(999, Money.valueOf("9.99499").cents());
+        assertEquals(-1000, Money.valueOf("-9.995").cents());
+        assertEquals(Money.valueOf(new BigDecimal("9.995")), Money.valueOf("9.995"));
+    }
+
+    @Test
+    void valueOf_InvalidText_Throws() {
+        assertThrows(NumberFormatException.class, () -> Money.valueOf(""));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("-"));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("12a"));
+        assertThrows(ArithmeticException.class, () -> Money.valueOf("999999999999999999999"));
+    }
+
+    @Test
+    void toString_AlwaysHasTwoDecimals() {
+        assertEquals("19.90", Money.ofCents(1990).toString());
+        assertEquals("0.05", Money.ofCents(5).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("100.00", Money.ofCents(10000).toString());
+        assertEquals(new BigDecimal("123.45"), Money.ofCents(12345).toBigDecimal());
+    }
+
+    @Test
+    void json_RoundTripsAsNumber() throws Exception {
+        ProductDTO product = ProductDTO.builder().id(1L).name("Product").price(Money.valueOf("0.1")).build();
+
+        String json = objectMapper.writeValueAsString(product);
+
+        assertTrue(json.contains("\"price\":0.10"), json);
+        assertEquals(product, objectMapper.readValue(json, ProductDTO.class));
+    }
+
+    @Test
+    void cbor_RoundTripsAsDecimalFraction() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        ProductDTO product = ProductDTO.builder().id(1L).name("Product").price(Money.valueOf("19.99")).build();
+
+        byte[] cbor = cborMapper.writeValueAsBytes(product);
+
+        assertEquals(new BigDecimal("19.99"), cborMapper.readTree(cbor).get("price").decimalValue());
+        assertEquals(product, cborMapper.readValue(cbor, ProductDTO.class));
+        assertEquals(Money.ofCents(2999), cborMapper.readValue(cborMapper.writeValueAsBytes(29.99), Money.class));
+    }
+
+    @Test
+    void json_ReadsNumbersAndStringsWithoutDoubleRounding() throws Exception {
+        assertEquals(Money.ofCents(2999), objectMapper.readValue("29.99", Money.class));
+        assertEquals(Money.ofCents(3000), objectMapper.readValue("30", Money.class));
+        assertEquals(Money.ofCents(3001), objectMapper.readValue("\"30.01\"", Money.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("\"abc\"", Money.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("true", Money.class));
+    }
+
+    @Test
+    void positive_ValidatesMoney() {
+        Set<ConstraintViolation<ProductCreateDTO>> zero = validator.validate(
+                ProductCreateDTO.builder().name("Product").price(Money.ofCents(0)).build());
+        Set<ConstraintViolation<ProductCreateDTO>> positive = validator.validate(
+                ProductCreateDTO.builder().name("Product").price(Money.ofCents(1)).build());
+
+        assertEquals(1, zero.size());
+        assertEquals("Price must be positive", zero.iterator().next().getMessage());
+        assertTrue(positive.isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package cyber.grid.cyberGridChallenge.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileProductEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void publish_AppendsOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("events/product-events.ndjson");
+        FileProductEventSink sink = new FileProductEventSink(objectMapper, file);
+        LocalDateTime createdOn = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        sink.publish(List.of(new ProductOutboxEvent(1L, 7L, ProductChangeType.CREATED, "{\"id\": 7, \"version\": 0}", createdOn)));
+        sink.publish(List.of(new ProductOutboxEvent(2L, 7L, ProductChangeType.DELETED, "{\"id\": 7, \"version\": 1}", createdOn)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("CREATED", first.get("type").asText());
+        assertEquals(0, first.get("product").get("version").asInt());
+        assertEquals("DELETED", objectMapper.readTree(lines.get(1)).get("type").asText());
+    }
+}
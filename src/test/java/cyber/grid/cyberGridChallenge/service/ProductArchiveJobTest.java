@@ -0,0 +1,57 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductArchiveJobTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductArchiveJob productArchiveJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productArchiveJob, "retention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(productArchiveJob, "batchSize", 100);
+        ReflectionTestUtils.setField(productArchiveJob, "maxBatchesPerRun", 5);
+    }
+
+    @Test
+    void archiveDeletedProducts_StopsAfterPartialBatch() {
+        when(productRepository.archiveDeleted(any(), any(), eq(100))).thenReturn(100, 100, 42);
+
+        productArchiveJob.archiveDeletedProducts();
+
+        ArgumentCaptor<LocalDateTime> deletedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> archivedOn = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository, times(3)).archiveDeleted(deletedBefore.capture(), archivedOn.capture(), eq(100));
+        assertEquals(archivedOn.getValue().minusDays(30), deletedBefore.getValue());
+    }
+
+    @Test
+    void archiveDeletedProducts_CapsBatchesPerRun() {
+        when(productRepository.archiveDeleted(any(), any(), eq(100))).thenReturn(100);
+
+        productArchiveJob.archiveDeletedProducts();
+
+        verify(productRepository, times(5)).archiveDeleted(any(), any(), eq(100));
+    }
+}
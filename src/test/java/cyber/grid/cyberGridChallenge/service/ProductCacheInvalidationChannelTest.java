@@ -0,0 +1,118 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheInvalidationChannelTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<ProductCacheInvalidator> productCacheInvalidator;
+
+    private ProductCacheInvalidationChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = channel(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_OutsideTransaction_NotifiesImmediately() {
+        channel.publish(List.of(1L, 2L), Arrays.asList(Money.valueOf("9.5"), null));
+
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("product_cache"), eq("i1,i2,p950"));
+    }
+
+    @Test
+    void publish_InTransaction_SendsOneNotificationBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        channel.publish(List.of(1L), List.of());
+        channel.publish(List.of(1L, 2L), List.of(Money.valueOf("10")));
+        verifyNoInteractions(jdbcTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("product_cache"), eq("i1,i2,p1000"));
+    }
+
+    @Test
+    void publish_Disabled_DoesNothing() {
+        channel(false).publish(List.of(1L), List.of(Money.valueOf("10")));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void encode_SplitsPayloadsAtSizeLimit() {
+        List<Long> ids = LongStream.rangeClosed(1_000_000, 1_002_000).boxed().toList();
+
+        List<String> payloads = ProductCacheInvalidationChannel.encode(ids, List.of(Money.valueOf("12.34")));
+
+        assertTrue(payloads.size() > 1);
+        assertTrue(payloads.stream().allMatch(payload -> payload.length() <= ProductCacheInvalidationChannel.MAX_PAYLOAD_LENGTH));
+        Set<Long> decodedIds = new LinkedHashSet<>();
+        Set<Money> decodedPrices = new LinkedHashSet<>();
+        payloads.forEach(payload -> ProductCacheInvalidationChannel.decode(payload, decodedIds, decodedPrices));
+        assertEquals(new LinkedHashSet<>(ids), decodedIds);
+        assertEquals(Set.of(Money.valueOf("12.34")), decodedPrices);
+    }
+
+    @Test
+    void decode_SkipsMalformedTokens() {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<Money> prices = new LinkedHashSet<>();
+
+        ProductCacheInvalidationChannel.decode("i7,ix,p150,p1.5,q3,p", ids, prices);
+
+        assertEquals(Set.of(7L), ids);
+        assertEquals(Set.of(Money.valueOf("1.5")), prices);
+    }
+
+    @Test
+    void constructor_InvalidChannelName_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductCacheInvalidationChannel(jdbcTemplate, null,
+                productCacheInvalidator, new SimpleMeterRegistry(), true, "cache; DROP TABLE products", Duration.ZERO, Duration.ZERO));
+    }
+
+    private ProductCacheInvalidationChannel channel(boolean enabled) {
+        return new ProductCacheInvalidationChannel(jdbcTemplate, null, productCacheInvalidator, new SimpleMeterRegistry(),
+                enabled, "product_cache", Duration.ofMillis(5), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,143 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ProductCacheInvalidatorTest {
+
+    private static final PriceWindow.Key ASC_50 = new PriceWindow.Key(Sort.Direction.ASC, Money.valueOf("50"));
+    private static final PriceWindow.Key ASC_500 = new PriceWindow.Key(Sort.Direction.ASC, Money.valueOf("500"));
+    private static final PriceWindow.Key DESC_TOP = new PriceWindow.Key(Sort.Direction.DESC, null);
+
+    private Cache products;
+    private Cache windows;
+    private ProductCacheInvalidationChannel channel;
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTS_CACHE, CacheConfig.EXPENSIVE_PRODUCTS_CACHE);
+        products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        products.put(1L, product(60.0));
+        windows = cacheManager.getCache(CacheConfig.EXPENSIVE_PRODUCTS_CACHE);
+        // Full window: read prices in (50, 200] only
+        windows.put(ASC_50, new PriceWindow(Sort.Direction.ASC, Money.valueOf("50"), List.of(product(60.0), product(200.0)), false));
+        windows.put(ASC_500, new PriceWindow(Sort.Direction.ASC, Money.valueOf("500"), List.of(product(900.0)), true));
+        // Full window: read prices in [800, +inf)
+        windows.put(DESC_TOP, new PriceWindow(Sort.Direction.DESC, null, List.of(product(900.0), product(800.0)), false));
+        channel = mock(ProductCacheInvalidationChannel.class);
+        productCacheInvalidator = new ProductCacheInvalidator(cacheManager, channel);
+    }
+
+    @Test
+    void evictPriceWindows_EvictsOnlyWindowsCoveringPrice() {
+        productCacheInvalidator.evictPriceWindows(Money.valueOf("199.99"));
+
+        assertNull(windows.get(ASC_50));
+        assertNotNull(windows.get(ASC_500));
+        assertNotNull(windows.get(DESC_TOP));
+    }
+
+    @Test
+    void evictPriceWindows_PriceBeyondFullWindow_KeepsWindow() {
+        productCacheInvalidator.evictPriceWindows(Money.valueOf("300"));
+
+        assertNotNull(windows.get(ASC_50));
+        assertNotNull(windows.get(ASC_500));
+        assertNotNull(windows.get(DESC_TOP));
+    }
+
+    @Test
+    void evictPriceWindows_ExhaustedWindow_CoversEverythingPastBound() {
+        productCacheInvalidator.evictPriceWindows(Money.valueOf("5000"), null);
+
+        assertNotNull(windows.get(ASC_50));
+        assertNull(windows.get(ASC_500));
+        assertNull(windows.get(DESC_TOP));
+    }
+
+    @Test
+    void evictPriceWindows_PriceOnBound_KeepsAscendingWindow() {
+        productCacheInvalidator.evictPriceWindows(List.of(Money.valueOf("500"), Money.valueOf("50")));
+
+        assertNotNull(windows.get(ASC_50));
+        assertNotNull(windows.get(ASC_500));
+        assertNotNull(windows.get(DESC_TOP));
+    }
+
+    @Test
+    void evictProducts_EvictsLocallyAndPublishes() {
+        productCacheInvalidator.evictProducts(List.of(1L));
+
+        assertNull(products.get(1L));
+        assertNotNull(windows.get(ASC_50));
+        verify(channel).publish(List.of(1L), List.of());
+    }
+
+    @Test
+    void evictPriceWindows_PublishesPrices() {
+        productCacheInvalidator.evictPriceWindows(Money.valueOf("199.99"));
+
+        verify(channel).publish(List.of(), List.of(Money.valueOf("199.99")));
+    }
+
+    @Test
+    void evictProducts_InTransaction_EvictsAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productCacheInvalidator.evictProducts(List.of(1L));
+            productCacheInvalidator.evictPriceWindows(Money.valueOf("199.99"));
+            // Re-cached by a read racing the uncommitted write
+            products.put(1L, product(60.0));
+            windows.put(ASC_50, new PriceWindow(Sort.Direction.ASC, Money.valueOf("50"), List.of(product(60.0), product(200.0)), false));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            assertNull(products.get(1L));
+            assertNull(windows.get(ASC_50));
+            assertNotNull(windows.get(ASC_500));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictLocally_DoesNotPublish() {
+        productCacheInvalidator.evictLocally(List.of(1L), List.of(Money.valueOf("199.99")));
+
+        assertNull(products.get(1L));
+        assertNull(windows.get(ASC_50));
+        verifyNoInteractions(channel);
+    }
+
+    @Test
+    void clear_EmptiesProductCaches() {
+        productCacheInvalidator.clear();
+
+        assertNull(products.get(1L));
+        assertNull(windows.get(ASC_50));
+        assertNull(windows.get(DESC_TOP));
+        verifyNoInteractions(channel);
+    }
+
+    private static ProductDTO product(double price) {
+        return ProductDTO.builder().id((long) price).price(Money.ofCents(Math.round(price * 100))).build();
+    }
+}
@@ -0,0 +1,149 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductChangePageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ChangedProduct;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private ProductChangeWatcher productChangeWatcher;
+
+    @Spy
+    private PrimaryReads primaryReads = PrimaryReads.withoutTransaction();
+
+    @InjectMocks
+    private ProductChangeFeedService productChangeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productChangeFeedService, "maxWait", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(productChangeFeedService, "maxPageSize", 100);
+        lenient().when(productMapper.toDTO(any(Product.class))).thenAnswer(invocation ->
+                ProductDTO.builder().id(invocation.<Product>getArgument(0).getId()).build());
+    }
+
+    @Test
+    void getChanges_FromStart_ClassifiesChangesAndReturnsMark() {
+        when(productRepository.findChangedAfter(ProductChangeCursor.START, 3)).thenReturn(List.of(
+                change(1L, 0L, ProductStatus.ACTIVE, 700L),
+                change(2L, 3L, ProductStatus.ACTIVE, 702L)));
+
+        ProductChangePageDTO page = productChangeFeedService.getChanges(null, 2);
+
+        assertEquals(List.of(ProductChangeType.CREATED, ProductChangeType.UPDATED),
+                page.getChanges().stream().map(change -> change.getType()).toList());
+        assertFalse(page.isHasNext());
+        assertEquals(new ProductChangeCursor(702L, 2L), ProductChangeCursor.decode(page.getCursor()));
+        verify(primaryReads).read(any());
+    }
+
+    @Test
+    void getChanges_FullPage_ContinuesFromCursor() {
+        when(productRepository.findChangedAfter(ProductChangeCursor.START, 2)).thenReturn(List.of(
+                change(1L, 1L, ProductStatus.DELETED, 700L),
+                change(2L, 1L, ProductStatus.ACTIVE, 700L)));
+
+        ProductChangePageDTO first = productChangeFeedService.getChanges(null, 1);
+        productChangeFeedService.getChanges(first.getCursor(), 1);
+
+        assertTrue(first.isHasNext());
+        assertEquals(ProductChangeType.DELETED, first.getChanges().get(0).getType());
+        verify(productRepository).findChangedAfter(new ProductChangeCursor(700L, 1L), 2);
+    }
+
+    @Test
+    void getChanges_NothingReadable_KeepsMark() {
+        String cursor = new ProductChangeCursor(700L, 5L).encode();
+        when(productRepository.findChangedAfter(any(), anyInt())).thenReturn(List.of());
+
+        ProductChangePageDTO page = productChangeFeedService.getChanges(cursor, 10);
+
+        verify(productRepository).findChangedAfter(new ProductChangeCursor(700L, 5L), 11);
+        assertTrue(page.getChanges().isEmpty());
+        assertEquals(cursor, page.getCursor());
+    }
+
+    @Test
+    void getChanges_ForeignCursor_ThrowsException() {
+        String priceCursor = new ProductCursor(ProductSortField.PRICE, Sort.Direction.ASC, Money.valueOf("10"), 1L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> productChangeFeedService.getChanges(priceCursor, 10));
+        assertThrows(InvalidCursorException.class, () -> productChangeFeedService.getChanges("not base64!", 10));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void awaitChanges_ChangeCommitsWhileWaiting_ReturnsIt() throws InterruptedException {
+        when(productRepository.findChangedAfter(eq(ProductChangeCursor.START), anyInt()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(change(5L, 0L, ProductStatus.ACTIVE, 700L)));
+        when(productChangeWatcher.awaitNextPoll(any())).thenReturn(Optional.of(new ProductChangeCursor(700L, 5L)));
+
+        ProductChangePageDTO page = productChangeFeedService.awaitChanges(null, 10, Duration.ofSeconds(5));
+
+        assertEquals(5L, page.getChanges().get(0).getProduct().getId());
+        verify(productChangeWatcher, times(1)).awaitNextPoll(any());
+    }
+
+    @Test
+    void awaitChanges_NothingAfterMark_ReturnsEmptyWithoutRequerying() throws InterruptedException {
+        String cursor = new ProductChangeCursor(700L, 5L).encode();
+        when(productRepository.findChangedAfter(any(), anyInt())).thenReturn(List.of());
+        when(productChangeWatcher.awaitNextPoll(any())).thenAnswer(invocation -> {
+            Thread.sleep(invocation.<Duration>getArgument(0).toMillis() + 1);
+            return Optional.of(new ProductChangeCursor(700L, 5L));
+        });
+
+        ProductChangePageDTO page = productChangeFeedService.awaitChanges(cursor, 10, Duration.ofMillis(50));
+
+        assertTrue(page.getChanges().isEmpty());
+        assertEquals(cursor, page.getCursor());
+        verify(productRepository, times(1)).findChangedAfter(any(), anyInt());
+    }
+
+    private static ChangedProduct change(Long id, Long version, ProductStatus status, long txid) {
+        Product product = Product.builder().id(id).name("Product " + id).price(Money.valueOf("1"))
+                .status(status).version(version).createdOn(T0).updatedOn(T0).build();
+        return new ChangedProduct(product, new ProductChangeCursor(txid, id));
+    }
+}
@@ -0,0 +1,58 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeCursor;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeWatcherTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    void poll_NobodyWaiting_SkipsQuery() {
+        new ProductChangeWatcher(productRepository, PrimaryReads.withoutTransaction()).poll();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void awaitNextPoll_WakesWaiterWithLatestChange() throws Exception {
+        ProductChangeCursor latest = new ProductChangeCursor(700L, 7L);
+        when(productRepository.findLatestChange()).thenReturn(Optional.of(latest));
+        ProductChangeWatcher watcher = new ProductChangeWatcher(productRepository, PrimaryReads.withoutTransaction());
+
+        CompletableFuture<Optional<ProductChangeCursor>> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return watcher.awaitNextPoll(Duration.ofSeconds(10));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (!waiter.isDone()) {
+            watcher.poll();
+            Thread.sleep(10);
+        }
+
+        assertEquals(Optional.of(latest), waiter.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void awaitNextPoll_NoPoll_TimesOutEmpty() throws InterruptedException {
+        ProductChangeWatcher watcher = new ProductChangeWatcher(productRepository, PrimaryReads.withoutTransaction());
+
+        assertEquals(Optional.empty(), watcher.awaitNextPoll(Duration.ofMillis(20)));
+    }
+}
@@ -0,0 +1,124 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCounterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCT_COUNT_CACHE);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void page_LastPage_CountsFromRows() {
+        CountedPage<String> page = counter(ProductCountMode.ESTIMATED).page(List.of("a", "b"), PageRequest.of(3, 5));
+
+        assertEquals(17, page.getTotalElements());
+        assertEquals(ProductCountMode.EXACT, page.getCountMode());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void page_Exact_CountsEveryPage() {
+        when(productRepository.countActive()).thenReturn(40L);
+        ProductCounter counter = counter(ProductCountMode.EXACT);
+
+        counter.page(List.of("a", "b"), PageRequest.of(0, 2));
+        CountedPage<String> page = counter.page(List.of("c", "d"), PageRequest.of(1, 2));
+
+        assertEquals(40, page.getTotalElements());
+        assertEquals(ProductCountMode.EXACT, page.getCountMode());
+        verify(productRepository, times(2)).countActive();
+    }
+
+    @Test
+    void page_Estimated_NeverBelowRowsRead() {
+        when(productRepository.estimateActive()).thenReturn(3L);
+
+        CountedPage<String> page = counter(ProductCountMode.ESTIMATED).page(List.of("a", "b"), PageRequest.of(2, 2));
+
+        assertEquals(6, page.getTotalElements());
+        assertEquals(ProductCountMode.ESTIMATED, page.getCountMode());
+        verify(productRepository, never()).countActive();
+    }
+
+    @Test
+    void page_Cached_CountsOnceUntilInvalidated() {
+        when(productRepository.countActive()).thenReturn(40L, 41L);
+        ProductCounter counter = counter(ProductCountMode.CACHED);
+
+        assertEquals(40, counter.page(List.of("a", "b"), PageRequest.of(0, 2)).getTotalElements());
+        CountedPage<String> page = counter.page(List.of("c", "d"), PageRequest.of(1, 2));
+        assertEquals(40, page.getTotalElements());
+        assertEquals(ProductCountMode.CACHED, page.getCountMode());
+
+        counter.invalidate();
+
+        assertEquals(41, counter.page(List.of("a", "b"), PageRequest.of(0, 2)).getTotalElements());
+        verify(productRepository, times(2)).countActive();
+    }
+
+    @Test
+    void invalidate_InTransaction_EvictsAgainAfterCompletion() {
+        when(productRepository.countActive()).thenReturn(40L, 41L);
+        ProductCounter counter = counter(ProductCountMode.CACHED);
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.invalidate();
+        // Read while the write is still uncommitted
+        counter.page(List.of("a", "b"), PageRequest.of(0, 2));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(41, counter.page(List.of("a", "b"), PageRequest.of(0, 2)).getTotalElements());
+    }
+
+    @Test
+    void page_CachedReplicaBehind_CountsOnPrimary() {
+        // The replica has not applied the insert yet; only a count routed to the primary includes it
+        ReplicaLagGuard routing = new ReplicaLagGuard(Duration.ofSeconds(5), "X-Client-Id", 10);
+        when(productRepository.countActive()).thenAnswer(invocation -> routing.isPrimaryRequired() ? 41L : 40L);
+
+        CountedPage<String> page = counter(ProductCountMode.CACHED).page(List.of("a", "b"), PageRequest.of(0, 2));
+
+        assertEquals(41, page.getTotalElements());
+        assertFalse(routing.isPrimaryRequired());
+    }
+
+    @Test
+    void constructor_SnapshotMode_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> counter(ProductCountMode.SNAPSHOT));
+    }
+
+    private ProductCounter counter(ProductCountMode mode) {
+        return new ProductCounter(productRepository, cacheManager, PrimaryReads.withoutTransaction(), mode);
+    }
+}
@@ -0,0 +1,61 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ProductExportService productExportService;
+
+    @Test
+    void exportActiveProducts_WritesOneLinePerProductAndDetaches() throws Exception {
+        Product first = Product.builder().id(1L).name("First").price(Money.valueOf("10")).build();
+        Product second = Product.builder().id(2L).name("Second").price(Money.valueOf("1")).build();
+        when(productRepository.streamAllActive()).thenReturn(Stream.of(first, second));
+        when(productMapper.toDTO(first)).thenReturn(ProductDTO.builder().id(1L).name("First").build());
+        when(productMapper.toDTO(second)).thenReturn(ProductDTO.builder().id(2L).name("Second").build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = productExportService.exportActiveProducts(out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("First", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+}
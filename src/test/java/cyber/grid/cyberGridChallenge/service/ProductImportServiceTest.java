@@ -0,0 +1,196 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductImportResultDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProductCounter productCounter;
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    private final List<List<Product>> copiedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productImportService, "maxReportedRejects", 10);
+        lenient().when(productMapper.toEntity(any(ProductCreateDTO.class))).thenAnswer(invocation -> {
+            ProductCreateDTO dto = invocation.getArgument(0);
+            return Product.builder().name(dto.getName()).price(dto.getPrice()).status(ProductStatus.ACTIVE).build();
+        });
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(productRepository.copyIn(anyList())).thenAnswer(invocation -> {
+            List<Product> chunk = List.copyOf(invocation.getArgument(0));
+            copiedChunks.add(chunk);
+            return (long) chunk.size();
+        });
+    }
+
+    @Test
+    void importProducts_Ndjson_RejectsBadRowsAndCopiesInChunks() throws Exception {
+        String body = """
+                {"name":"A","price":1.5}
+                {"name":"","price":2}
+                not json
+                {"name":"B","price":3}
+
+                {"name":"C","price":4}
+                """;
+
+        ProductImportResultDTO result = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(2, result.getRejects().get(0).getLine());
+        assertTrue(result.getRejects().get(0).getMessage().contains("name"));
+        assertEquals(3, result.getRejects().get(1).getLine());
+        assertEquals(2, copiedChunks.size());
+        assertEquals(List.of("A", "B"), copiedChunks.get(0).stream().map(Product::getName).toList());
+        verify(productCacheInvalidator).evictPriceWindows(List.of(Money.valueOf("1.5"), Money.valueOf("3.0")));
+        verify(productCacheInvalidator).evictPriceWindows(List.of(Money.valueOf("4.0")));
+        verify(productCounter, times(2)).invalidate();
+        verify(productOutboxRepository, times(2)).append(eq(ProductChangeType.CREATED), anyList());
+    }
+
+    @Test
+    void importProducts_Csv_UsesHeaderColumns() throws Exception {
+        String body = """
+                price,name,description
+                19.99,Mouse,"Wireless, quiet"
+                -1,Broken,
+                """;
+
+        ProductImportResultDTO result = productImportService.importProducts(stream(body), ProductImportService.Format.CSV);
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getRejects().get(0).getLine());
+        verify(productMapper).toEntity(ProductCreateDTO.builder().name("Mouse").description("Wireless, quiet").price(Money.valueOf("19.99")).build());
+    }
+
+    @Test
+    void importProducts_ChunkFailsInDatabase_ContinuesWithNextChunk() throws Exception {
+        when(productRepository.copyIn(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1L);
+        String body = """
+                {"name":"A","price":1}
+                {"name":"B","price":2}
+                {"name":"C","price":3}
+                """;
+
+        ProductImportResultDTO result = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(1L, 2L), result.getRejects().stream().map(reject -> reject.getLine()).toList());
+    }
+
+    @Test
+    void importProducts_RowRejectedByDatabase_BisectsChunkAndKeepsGoodRows() throws Exception {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 4);
+        doAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(product -> product.getName().equals("C"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            copiedChunks.add(List.copyOf(chunk));
+            return (long) chunk.size();
+        }).when(productRepository).copyIn(anyList());
+        String body = """
+                {"name":"A","price":1}
+                {"name":"B","price":2}
+                {"name":"C","price":3}
+                {"name":"D","price":4}
+                """;
+
+        ProductImportResultDTO result = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getRejects().get(0).getLine());
+        assertTrue(result.getRejects().get(0).getMessage().contains("value too long"));
+        assertEquals(List.of(List.of("A", "B"), List.of("D")),
+                copiedChunks.stream().map(chunk -> chunk.stream().map(Product::getName).toList()).toList());
+    }
+
+    @Test
+    void importProducts_ValuesOverColumnLimits_RejectedBeforeCopy() throws Exception {
+        String body = """
+                {"name":"%s","price":1}
+                {"name":"Too expensive","price":100000000}
+                {"name":"Fits","price":99999999.99}
+                """.formatted("x".repeat(256));
+
+        ProductImportResultDTO result = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(1L, 2L), result.getRejects().stream().map(reject -> reject.getLine()).toList());
+        assertTrue(result.getRejects().get(0).getMessage().contains("name"));
+        assertTrue(result.getRejects().get(1).getMessage().contains("price"));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,188 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.config.ReplicaLagGuard;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductLookupCoalescerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    private final PrimaryReads primaryReads = PrimaryReads.withoutTransaction();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        lenient().when(productMapper.toDTO(any(Product.class)))
+                .thenAnswer(invocation -> dto(invocation.<Product>getArgument(0).getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void find_ConcurrentLookups_ShareOneQuery() throws Exception {
+        when(productRepository.findActiveByIds(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id != 5L)
+                        .map(id -> Product.builder().id(id).build())
+                        .toList());
+        ProductLookupCoalescer coalescer = coalescer(Duration.ofSeconds(5), 6);
+
+        List<Future<Optional<ProductDTO>>> results = lookUpTogether(coalescer, 1L, 2L, 3L, 4L, 5L, 6L);
+
+        for (int i = 0; i < results.size(); i++) {
+            Optional<ProductDTO> result = results.get(i).get();
+            if (i == 4) {
+                assertTrue(result.isEmpty());
+            } else {
+                assertEquals(i + 1L, result.orElseThrow().getId());
+            }
+        }
+        // Six distinct ids fill a batch, which then runs without waiting out the window
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.captor();
+        verify(productRepository, timeout(1000)).findActiveByIds(ids.capture());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L), Set.copyOf(ids.getValue()));
+        verify(productRepository, never()).findByIdAndStatusNot(any(), any());
+        assertEquals(6.0, meterRegistry.summary(ProductLookupCoalescer.BATCH_SIZE).totalAmount());
+    }
+
+    @Test
+    void find_SameIdTwice_QueriesItOnce() throws Exception {
+        when(productRepository.findActiveByIds(anyCollection())).thenReturn(List.of(Product.builder().id(3L).build()));
+        ProductLookupCoalescer coalescer = coalescer(Duration.ofMillis(200), 100);
+
+        List<Future<Optional<ProductDTO>>> results = lookUpTogether(coalescer, 3L, 3L);
+
+        assertEquals(3L, results.get(0).get().orElseThrow().getId());
+        assertEquals(3L, results.get(1).get().orElseThrow().getId());
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.captor();
+        verify(productRepository, atLeastOnce()).findActiveByIds(ids.capture());
+        ids.getAllValues().forEach(batch -> assertEquals(List.of(3L), List.copyOf(batch)));
+    }
+
+    @Test
+    void find_QueryFails_FailsEveryCaller() throws Exception {
+        when(productRepository.findActiveByIds(anyCollection())).thenThrow(new IllegalStateException("down"));
+        ProductLookupCoalescer coalescer = coalescer(Duration.ofSeconds(5), 2);
+
+        List<Future<Optional<ProductDTO>>> results = lookUpTogether(coalescer, 1L, 2L);
+
+        for (Future<Optional<ProductDTO>> result : results) {
+            Exception ex = assertThrows(Exception.class, result::get);
+            assertInstanceOf(IllegalStateException.class, ex.getCause());
+        }
+    }
+
+    @Test
+    void find_WindowElapses_RunsPartialBatch() {
+        when(productRepository.findActiveByIds(anyCollection())).thenReturn(List.of(Product.builder().id(1L).build()));
+
+        Optional<ProductDTO> result = coalescer(Duration.ofMillis(1), 100).find(1L);
+
+        assertEquals(1L, result.orElseThrow().getId());
+    }
+
+    @Test
+    void find_Disabled_QueriesById() {
+        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED)).thenReturn(Optional.of(Product.builder().id(1L).build()));
+        ProductLookupCoalescer coalescer = new ProductLookupCoalescer(productRepository, productMapper, primaryReads,
+                meterRegistry, false, Duration.ofSeconds(5), 100);
+
+        assertEquals(1L, coalescer.find(1L).orElseThrow().getId());
+        verify(productRepository, never()).findActiveByIds(anyCollection());
+    }
+
+    @Test
+    void find_ReplicaBehind_ReadsWriteFromPrimary() throws Exception {
+        // The replica has not applied the rename yet; only a read routed to the primary sees it
+        ReplicaLagGuard routing = new ReplicaLagGuard(Duration.ofSeconds(5), "X-Client-Id", 10);
+        when(productRepository.findActiveByIds(anyCollection()))
+                .thenAnswer(invocation -> List.of(Product.builder().id(1L)
+                        .name(routing.isPrimaryRequired() ? "Renamed" : "Original").build()));
+        when(productMapper.toDTO(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return ProductDTO.builder().id(product.getId()).name(product.getName()).build();
+        });
+
+        List<Future<Optional<ProductDTO>>> results = lookUpTogether(coalescer(Duration.ofMillis(50), 2), 1L, 1L);
+
+        for (Future<Optional<ProductDTO>> result : results) {
+            assertEquals("Renamed", result.get().orElseThrow().getName());
+        }
+        assertFalse(routing.isPrimaryRequired());
+    }
+
+    @Test
+    void find_Disabled_ReadsFromPrimary() {
+        ReplicaLagGuard routing = new ReplicaLagGuard(Duration.ofSeconds(5), "X-Client-Id", 10);
+        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED))
+                .thenAnswer(invocation -> routing.isPrimaryRequired()
+                        ? Optional.of(Product.builder().id(1L).build())
+                        : Optional.empty());
+        ProductLookupCoalescer coalescer = new ProductLookupCoalescer(productRepository, productMapper, primaryReads,
+                meterRegistry, false, Duration.ofSeconds(5), 100);
+
+        assertEquals(1L, coalescer.find(1L).orElseThrow().getId());
+    }
+
+    private List<Future<Optional<ProductDTO>>> lookUpTogether(ProductLookupCoalescer coalescer, Long... ids) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<ProductDTO>>> results = new ArrayList<>();
+        for (Long id : ids) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return coalescer.find(id);
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+
+    private ProductLookupCoalescer coalescer(Duration window, int maxBatchSize) {
+        return new ProductLookupCoalescer(productRepository, productMapper, primaryReads, meterRegistry,
+                true, window, maxBatchSize);
+    }
+
+    private static ProductDTO dto(Long id) {
+        return ProductDTO.builder().id(id).name("Product " + id).build();
+    }
+}
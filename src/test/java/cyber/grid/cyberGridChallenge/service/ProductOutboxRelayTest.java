@@ -0,0 +1,95 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.outbox.InMemoryProductEventSink;
+import cyber.grid.cyberGridChallenge.outbox.ProductEventSink;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxEvent;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductOutboxRelayTest {
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final InMemoryProductEventSink sink = new InMemoryProductEventSink(100);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProductOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        relay = relay(sink);
+    }
+
+    @Test
+    void relay_DrainsBatchesUntilPartial() {
+        when(productOutboxRepository.claim(2)).thenReturn(events(1, 2), events(3, 4), events(5, 5));
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sink.getEvents().stream().map(ProductOutboxEvent::id).toList());
+        assertEquals(5.0, meterRegistry.get(ProductOutboxRelay.RELAYED).counter().count());
+        assertEquals(5, meterRegistry.get(ProductOutboxRelay.LAG).timer().count());
+    }
+
+    @Test
+    void relay_SinkFails_KeepsBatchAndStops() {
+        ProductEventSink failing = events -> {
+            throw new IllegalStateException("sink down");
+        };
+        relay = relay(failing);
+        when(productOutboxRepository.claim(2)).thenReturn(events(1, 2));
+
+        relay.relay();
+
+        verify(productOutboxRepository, times(1)).claim(2);
+        assertEquals(1.0, meterRegistry.get(ProductOutboxRelay.FAILURES).counter().count());
+        assertTrue(meterRegistry.find(ProductOutboxRelay.RELAYED).counters().isEmpty());
+    }
+
+    @Test
+    void relay_EmptyOutbox_PublishesNothing() {
+        when(productOutboxRepository.claim(2)).thenReturn(List.of());
+
+        relay.relay();
+
+        assertTrue(sink.getEvents().isEmpty());
+    }
+
+    private ProductOutboxRelay relay(ProductEventSink sink) {
+        ProductOutboxRelay relay = new ProductOutboxRelay(productOutboxRepository, sink, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 10);
+        return relay;
+    }
+
+    private static List<ProductOutboxEvent> events(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new ProductOutboxEvent(id, id, ProductChangeType.UPDATED, "{}", LocalDateTime.now().minusSeconds(1)))
+                .toList();
+    }
+}
@@ -0,0 +1,191 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.DoubleStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceRangeServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private CacheManager cacheManager = new CaffeineCacheManager(CacheConfig.EXPENSIVE_PRODUCTS_CACHE);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PrimaryReads primaryReads = PrimaryReads.withoutTransaction();
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @InjectMocks
+    private ProductPriceRangeService productPriceRangeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productPriceRangeService, "bucketWidth", Money.valueOf("10"));
+        ReflectionTestUtils.setField(productPriceRangeService, "windowRows", 5);
+        ReflectionTestUtils.setField(productPriceRangeService, "maxPageSize", 100);
+        lenient().when(productMapper.toDTO(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return ProductDTO.builder().id(product.getId()).price(product.getPrice()).build();
+        });
+    }
+
+    @Test
+    void getProductsByPrice_NearbyMinPrices_ShareWindow() {
+        when(productRepository.findActiveByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 5))
+                .thenReturn(products(45, 55, 60));
+
+        CursorPageDTO<ProductDTO> first = productPriceRangeService.getProductsByPrice(Money.valueOf("45"), null, Sort.Direction.ASC, null, 2);
+        CursorPageDTO<ProductDTO> second = productPriceRangeService.getProductsByPrice(Money.valueOf("48.5"), null, Sort.Direction.ASC, null, 2);
+
+        assertEquals(List.of(55L, 60L), ids(first));
+        assertFalse(first.isHasNext());
+        assertEquals(List.of(55L, 60L), ids(second));
+        verify(productRepository, times(1)).findActiveByPrice(any(), any(), any(), any(), anyInt());
+        assertEquals(2.0, meterRegistry.get(ProductPriceRangeService.WINDOW_OUTCOMES).tag("outcome", "window").counter().count());
+    }
+
+    @Test
+    void getProductsByPrice_FullPage_ContinuesFromCursor() {
+        when(productRepository.findActiveByPrice(Money.valueOf("30"), null, Sort.Direction.ASC, null, 5))
+                .thenReturn(products(41, 42, 43, 44, 45));
+        when(productRepository.findActiveByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 5))
+                .thenReturn(products(41, 42, 43, 44, 45));
+
+        CursorPageDTO<ProductDTO> first = productPriceRangeService.getProductsByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 2);
+        CursorPageDTO<ProductDTO> second = productPriceRangeService.getProductsByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, first.getNextCursor(), 2);
+
+        assertEquals(List.of(41L, 42L), ids(first));
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(43L, 44L), ids(second));
+        assertTrue(second.isHasNext());
+    }
+
+    @Test
+    void getProductsByPrice_WindowRunsOut_FallsBackToIndex() {
+        when(productRepository.findActiveByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 5))
+                .thenReturn(products(41, 42, 43, 44, 45));
+        when(productRepository.findActiveByPrice(Money.valueOf("44"), null, Sort.Direction.ASC, null, 3))
+                .thenReturn(products(45, 46, 47));
+
+        CursorPageDTO<ProductDTO> result = productPriceRangeService.getProductsByPrice(Money.valueOf("44"), null, Sort.Direction.ASC, null, 2);
+
+        assertEquals(List.of(45L, 46L), ids(result));
+        assertTrue(result.isHasNext());
+        assertEquals(1.0, meterRegistry.get(ProductPriceRangeService.WINDOW_OUTCOMES).tag("outcome", "index").counter().count());
+    }
+
+    @Test
+    void getProductsByPrice_MaxPriceReached_EndsWithoutFallback() {
+        when(productRepository.findActiveByPrice(Money.valueOf("30"), null, Sort.Direction.ASC, null, 5))
+                .thenReturn(products(41, 42, 43, 44, 45));
+
+        CursorPageDTO<ProductDTO> result = productPriceRangeService.getProductsByPrice(
+                Money.valueOf("40"), Money.valueOf("42.5"), Sort.Direction.ASC, null, 3);
+
+        assertEquals(List.of(41L, 42L), ids(result));
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(productRepository, times(1)).findActiveByPrice(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getProductsByPrice_DescendingWithoutMax_UsesTopWindow() {
+        when(productRepository.findActiveByPrice(null, null, Sort.Direction.DESC, null, 5))
+                .thenReturn(products(90, 70, 50));
+
+        CursorPageDTO<ProductDTO> result = productPriceRangeService.getProductsByPrice(Money.valueOf("60"), null, Sort.Direction.DESC, null, 2);
+
+        assertEquals(List.of(90L, 70L), ids(result));
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void getProductsByPrice_SnapshotServes_SkipsWindowAndIndex() {
+        when(productCatalogSnapshot.findByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 3))
+                .thenReturn(Optional.of(List.of(41L, 42L, 43L).stream()
+                        .map(id -> ProductDTO.builder().id(id).price(Money.ofCents(id * 100)).build())
+                        .toList()));
+
+        CursorPageDTO<ProductDTO> result = productPriceRangeService.getProductsByPrice(Money.valueOf("40"), null, Sort.Direction.ASC, null, 2);
+
+        assertEquals(List.of(41L, 42L), ids(result));
+        assertTrue(result.isHasNext());
+        verifyNoInteractions(productRepository);
+        assertEquals(1.0, meterRegistry.get(ProductPriceRangeService.WINDOW_OUTCOMES).tag("outcome", "snapshot").counter().count());
+    }
+
+    @Test
+    void getProductsByPrice_CursorForOtherSort_ThrowsException() {
+        String cursor = new ProductCursor(ProductSortField.NAME, Sort.Direction.ASC, "Laptop", 1L).encode();
+
+        assertThrows(InvalidCursorException.class,
+                () -> productPriceRangeService.getProductsByPrice(Money.valueOf("1"), null, Sort.Direction.ASC, cursor, 2));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductsByPrice_SizeOutOfRange_ThrowsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productPriceRangeService.getProductsByPrice(Money.valueOf("1"), null, Sort.Direction.ASC, null, 0));
+        assertThrows(InvalidCursorException.class,
+                () -> productPriceRangeService.getProductsByPrice(Money.valueOf("1"), null, Sort.Direction.ASC, null, 101));
+        verifyNoInteractions(productRepository, productCatalogSnapshot);
+    }
+
+    @Test
+    void bucketBound_RoundsToHalfOpenBuckets() {
+        assertEquals(Money.valueOf("40"), productPriceRangeService.bucketBound(Money.valueOf("50"), true));
+        assertEquals(Money.valueOf("40"), productPriceRangeService.bucketBound(Money.valueOf("40.01"), true));
+        assertEquals(Money.valueOf("50"), productPriceRangeService.bucketBound(Money.valueOf("50"), false));
+        assertEquals(Money.valueOf("50"), productPriceRangeService.bucketBound(Money.valueOf("40.01"), false));
+    }
+
+    private static List<Product> products(double... prices) {
+        return DoubleStream.of(prices)
+                .mapToObj(price -> Product.builder().id((long) price).price(Money.ofCents(Math.round(price * 100))).build())
+                .toList();
+    }
+
+    private static List<Long> ids(CursorPageDTO<ProductDTO> page) {
+        return page.getContent().stream().map(ProductDTO::getId).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package cyber.grid.cyberGridChallenge.service;
+
+import cyber.grid.cyberGridChallenge.dto.ProductDTO;
+import cyber.grid.cyberGridChallenge.entity.Product;
+import cyber.grid.cyberGridChallenge.exception.InvalidSearchException;
+import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSearchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSearchService, "maxQueryLength", 10);
+        ReflectionTestUtils.setField(productSearchService, "maxPageSize", 50);
+        ReflectionTestUtils.setField(productSearchService, "maxCandidates", 100);
+    }
+
+    @Test
+    void searchProducts_TrimsQueryAndMapsSlice() {
+        Product product = Product.builder().id(1L).name("Laptop").build();
+        ProductDTO productDTO = ProductDTO.builder().id(1L).name("Laptop").build();
+        when(productRepository.searchActive("lapt", ProductSearchMode.NAME, PageRequest.of(2, 20)))
+                .thenReturn(new SliceImpl<>(List.of(product), PageRequest.of(2, 20), true));
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+
+        Slice<ProductDTO> result = productSearchService.searchProducts("  lapt ", "Name", 2, 20);
+
+        assertEquals(List.of(productDTO), result.getContent());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void searchProducts_BlankQuery_ThrowsException() {
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("   ", "text", 0, 20));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_QueryTooLong_ThrowsException() {
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("a".repeat(11), "text", 0, 20));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_UnknownModeOrPageSize_ThrowsException() {
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("laptop", "fuzzy", 0, 20));
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("laptop", "text", 0, 51));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_PagePastCandidates_ThrowsException() {
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("laptop", "text", 5, 20));
+        assertThrows(InvalidSearchException.class, () -> productSearchService.searchProducts("laptop", "text", Integer.MAX_VALUE, 50));
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -1,31 +1,65 @@
 package cyber.grid.cyberGridChallenge.service;
 
+import cyber.grid.cyberGridChallenge.catalog.ProductCatalogSnapshot;
+import cyber.grid.cyberGridChallenge.config.CacheConfig;
+import cyber.grid.cyberGridChallenge.dto.BulkItemStatus;
+import cyber.grid.cyberGridChallenge.dto.BulkResultDTO;
+import cyber.grid.cyberGridChallenge.dto.CountedPage;
+import cyber.grid.cyberGridChallenge.dto.CursorPageDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductBatchDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductChangeType;
+import cyber.grid.cyberGridChallenge.dto.ProductCountMode;
+import cyber.grid.cyberGridChallenge.dto.ProductBulkUpdateDTO;
+import cyber.grid.cyberGridChallenge.dto.ProductCursor;
 import cyber.grid.cyberGridChallenge.dto.ProductDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductCreateDTO;
 import cyber.grid.cyberGridChallenge.dto.ProductUpdateDTO;
 import cyber.grid.cyberGridChallenge.entity.Product;
 import cyber.grid.cyberGridChallenge.entity.ProductStatus;
+import cyber.grid.cyberGridChallenge.exception.InvalidCursorException;
+import cyber.grid.cyberGridChallenge.exception.InvalidLookupException;
+import cyber.grid.cyberGridChallenge.exception.InvalidSortException;
+import cyber.grid.cyberGridChallenge.exception.ProductConflictException;
 import cyber.grid.cyberGridChallenge.exception.ProductNotFoundException;
 import cyber.grid.cyberGridChallenge.mapper.ProductMapper;
+import cyber.grid.cyberGridChallenge.money.Money;
+import cyber.grid.cyberGridChallenge.repository.ProductOutboxRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductPriceChange;
 import cyber.grid.cyberGridChallenge.repository.ProductRepository;
+import cyber.grid.cyberGridChallenge.repository.ProductSortField;
+import cyber.grid.cyberGridChallenge.repository.UpdatedProduct;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +71,30 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private ProductLookupCoalescer productLookupCoalescer;
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Mock
+    private ProductCounter productCounter;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE);
+
+    @Spy
+    private PrimaryReads primaryReads = PrimaryReads.withoutTransaction();
+
     @InjectMocks
     private ProductService productService;
 
@@ -47,11 +105,13 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(productService, "maxLookupIds", 3);
+        ReflectionTestUtils.setField(productService, "maxCursorPageSize", 100);
         testProduct = Product.builder()
                 .id(1L)
                 .name("Test Product")
                 .description("Test Description")
-                .price(BigDecimal.valueOf(100.00))
+                .price(Money.valueOf("100.00"))
                 .status(ProductStatus.ACTIVE)
                 .createdOn(LocalDateTime.now())
                 .updatedOn(LocalDateTime.now())
@@ -61,20 +121,20 @@ class ProductServiceTest {
                 .id(1L)
                 .name("Test Product")
                 .description("Test Description")
-                .price(100.00)
+                .price(Money.valueOf("100.00"))
                 .status(ProductStatus.ACTIVE)
                 .build();
 
         testProductCreateDTO = ProductCreateDTO.builder()
                 .name("Test Product")
                 .description("Test Description")
-                .price(100.00)
+                .price(Money.valueOf("100.00"))
                 .build();
 
         testProductUpdateDTO = ProductUpdateDTO.builder()
                 .name("Updated Product")
                 .description("Updated Description")
-                .price(150.00)
+                .price(Money.valueOf("150.00"))
                 .status(ProductStatus.ACTIVE)
                 .build();
     }
@@ -82,7 +142,7 @@ class ProductServiceTest {
     @Test
     void createProduct_Success() {
         when(productMapper.toEntity(testProductCreateDTO)).thenReturn(testProduct);
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(testProduct)).thenReturn(testProduct);
         when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
 
         ProductDTO result = productService.createProduct(testProductCreateDTO);
@@ -90,109 +150,340 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(testProductDTO.getName(), result.getName());
         verify(productMapper).toEntity(testProductCreateDTO);
-        verify(productRepository).save(testProduct);
+        verify(productRepository).saveAndFlush(testProduct);
         verify(productMapper).toDTO(testProduct);
+        verify(productCacheInvalidator).evictPriceWindows(testProduct.getPrice());
+        verify(productOutboxRepository).append(ProductChangeType.CREATED, List.of(1L));
     }
 
     @Test
     void getAllProducts_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(List.of(testProduct));
-        when(productRepository.findAllActive(ProductStatus.DELETED.name(), pageable)).thenReturn(productPage);
+        when(productRepository.findAllActive(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(List.of(testProduct));
         when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
+        when(productCounter.page(anyList(), any(Pageable.class))).thenAnswer(invocation ->
+                new CountedPage<>(invocation.getArgument(0), invocation.getArgument(1), 42, ProductCountMode.CACHED));
 
-        Page<ProductDTO> result = productService.getAllProducts(pageable);
+        CountedPage<ProductDTO> result = productService.getAllProducts(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(testProductDTO.getName(), result.getContent().get(0).getName());
-        verify(productRepository).findAllActive(ProductStatus.DELETED.name(), pageable);
+        assertEquals(42, result.getTotalElements());
+        assertEquals(ProductCountMode.CACHED, result.getCountMode());
+        verify(productCatalogSnapshot).findAll(PageRequest.of(0, 10, Sort.by("id")));
     }
 
     @Test
-    void getProductById_Success() {
-        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED))
-                .thenReturn(Optional.of(testProduct));
+    void getAllProducts_SortedByField_ReadsInIndexOrder() {
+        when(productRepository.findAllActive(any(Pageable.class))).thenReturn(List.of());
+
+        productService.getAllProducts(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "createdOn")));
+
+        verify(productCatalogSnapshot).findAll(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "createdOn", "id")));
+        verify(productRepository).findAllActive(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "created_on", "id")));
+        verify(productCounter).page(List.of(), PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "createdOn", "id")));
+    }
+
+    @Test
+    void getAllProducts_SortedByName_OrdersNamesByteWise() {
+        when(productRepository.findAllActive(any(Pageable.class))).thenReturn(List.of());
+
+        productService.getAllProducts(PageRequest.of(0, 10, Sort.by("name")));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findAllActive(pageable.capture());
+        // The order the catalog snapshot serves names in, whatever the database collation
+        assertEquals("SELECT * FROM products order by name COLLATE \"C\" asc, id asc",
+                QueryUtils.applySorting("SELECT * FROM products", pageable.getValue().getSort()));
+    }
+
+    @Test
+    void getAllProducts_SortedByIdAlready_KeepsSort() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        when(productRepository.findAllActive(pageable)).thenReturn(List.of());
+
+        productService.getAllProducts(pageable);
+
+        verify(productRepository).findAllActive(pageable);
+    }
+
+    @Test
+    void getAllProducts_UnknownSortField_ThrowsException() {
+        assertThrows(InvalidSortException.class,
+                () -> productService.getAllProducts(PageRequest.of(0, 10, Sort.by("status"))));
+        verifyNoInteractions(productRepository, productCatalogSnapshot);
+    }
+
+    @Test
+    void getAllProducts_SnapshotServes_SkipsRepository() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        when(productCatalogSnapshot.findAll(PageRequest.of(0, 10, Sort.by("name", "id"))))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(testProductDTO))));
+
+        CountedPage<ProductDTO> result = productService.getAllProducts(pageable);
+
+        assertEquals(List.of(testProductDTO), result.getContent());
+        assertEquals(ProductCountMode.SNAPSHOT, result.getCountMode());
+        verifyNoInteractions(productRepository, productMapper, productCounter);
+    }
+
+    @Test
+    void getProductsByCursor_FirstPage_ReturnsNextCursor() {
+        when(productRepository.findActiveSlice(ProductSortField.NAME, Sort.Direction.ASC, null, 1))
+                .thenReturn(new SliceImpl<>(List.of(testProduct), PageRequest.of(0, 1), true));
         when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
 
+        CursorPageDTO<ProductDTO> result = productService.getProductsByCursor("name", Sort.Direction.ASC, null, 1);
+
+        assertTrue(result.isHasNext());
+        assertEquals(1, result.getContent().size());
+        ProductCursor next = ProductCursor.decode(result.getNextCursor());
+        assertEquals(ProductSortField.NAME, next.sortField());
+        assertEquals(Sort.Direction.ASC, next.direction());
+        assertEquals("Test Product", next.value());
+        assertEquals(1L, next.id());
+    }
+
+    @Test
+    void getProductsByCursor_CursorOverridesRequestedSort() {
+        ProductCursor cursor = new ProductCursor(ProductSortField.PRICE, Sort.Direction.DESC, Money.valueOf("100.00"), 1L);
+        when(productRepository.findActiveSlice(eq(ProductSortField.PRICE), eq(Sort.Direction.DESC), eq(cursor), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        CursorPageDTO<ProductDTO> result = productService.getProductsByCursor("name", Sort.Direction.ASC, cursor.encode(), 10);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getProductsByCursor_UnsupportedSort_ThrowsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productService.getProductsByCursor("description", Sort.Direction.ASC, null, 10));
+        verify(productRepository, never()).findActiveSlice(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getProductsByCursor_SizeOutOfRange_ThrowsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productService.getProductsByCursor("name", Sort.Direction.ASC, null, 0));
+        assertThrows(InvalidCursorException.class,
+                () -> productService.getProductsByCursor("name", Sort.Direction.ASC, null, -5));
+        assertThrows(InvalidCursorException.class,
+                () -> productService.getProductsByCursor("name", Sort.Direction.ASC, null, 101));
+        verify(productRepository, never()).findActiveSlice(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getProductsByCursor_MalformedCursor_ThrowsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productService.getProductsByCursor("name", Sort.Direction.ASC, "not-a-cursor", 10));
+    }
+
+    @Test
+    void getProductById_Success() {
+        when(productLookupCoalescer.find(1L)).thenReturn(Optional.of(testProductDTO));
+
         ProductDTO result = productService.getProductById(1L);
 
         assertNotNull(result);
         assertEquals(testProductDTO.getName(), result.getName());
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productMapper).toDTO(testProduct);
+        verify(productLookupCoalescer).find(1L);
     }
 
     @Test
     void getProductById_ProductNotFound_ThrowsException() {
-        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED))
-                .thenReturn(Optional.empty());
+        when(productLookupCoalescer.find(1L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById(1L));
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productMapper, never()).toDTO(any());
+        verify(productLookupCoalescer).find(1L);
     }
 
     @Test
-    void updateProduct_Success() {
-        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED))
-                .thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
+    void getProductsByIds_ServesCachedAndLoadsRestInOneQuery() {
+        ProductDTO cached = ProductDTO.builder().id(2L).name("Cached").build();
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).put(2L, cached);
+        when(productRepository.findActiveByIds(List.of(3L, 1L))).thenReturn(List.of(testProduct));
         when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
 
+        ProductBatchDTO result = productService.getProductsByIds(List.of(3L, 2L, 1L, 2L));
+
+        assertEquals(List.of(cached, testProductDTO), result.getContent());
+        assertEquals(List.of(3L), result.getNotFound());
+        assertEquals(testProductDTO, cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1L, ProductDTO.class));
+        verify(productRepository).findActiveByIds(List.of(3L, 1L));
+    }
+
+    @Test
+    void getProductsByIds_AllCached_IssuesNoQuery() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).put(1L, testProductDTO);
+
+        ProductBatchDTO result = productService.getProductsByIds(List.of(1L));
+
+        assertEquals(List.of(testProductDTO), result.getContent());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductsByIds_TooManyIds_ThrowsException() {
+        assertThrows(InvalidLookupException.class, () -> productService.getProductsByIds(List.of(1L, 2L, 3L, 4L)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void updateProduct_Success() {
+        Product changes = Product.builder().name("Updated Product").price(Money.valueOf("150.00")).build();
+        Product updated = Product.builder().id(1L).name("Updated Product").price(Money.valueOf("150.00")).version(1L).build();
+        when(productMapper.toEntity(testProductUpdateDTO)).thenReturn(changes);
+        when(productRepository.updateIfCurrent(eq(changes), isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new UpdatedProduct(updated, Money.valueOf("100.00"))));
+        when(productMapper.toDTO(updated)).thenReturn(testProductDTO);
+
         ProductDTO result = productService.updateProduct(1L, testProductUpdateDTO);
 
         assertNotNull(result);
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productMapper).updateFromDto(testProductUpdateDTO, testProduct);
-        verify(productRepository).save(testProduct);
-        verify(productMapper).toDTO(testProduct);
+        assertEquals(1L, changes.getId());
+        verify(productRepository, never()).findByIdAndStatusNot(any(), any());
+        verify(productRepository, never()).save(any());
+        verify(productCacheInvalidator).evictProducts(List.of(1L));
+        verify(productCacheInvalidator).evictPriceWindows(Money.valueOf("100.00"), Money.valueOf("150.00"));
+        verify(productOutboxRepository).append(ProductChangeType.UPDATED, List.of(1L));
+        // The product stays active, so the count does too
+        verify(productCounter, never()).invalidate();
     }
 
     @Test
     void updateProduct_ProductNotFound_ThrowsException() {
-        when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED))
-                .thenReturn(Optional.empty());
+        when(productMapper.toEntity(testProductUpdateDTO)).thenReturn(new Product());
+        when(productRepository.updateIfCurrent(any(), isNull(), any())).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(1L, testProductUpdateDTO));
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productMapper, never()).updateFromDto(any(), any());
-        verify(productRepository, never()).save(any());
+        verify(productCacheInvalidator, never()).evictPriceWindows(any(Money[].class));
+        verifyNoInteractions(productOutboxRepository);
     }
 
     @Test
-    void deleteProduct_Success() {
+    void updateProduct_StaleVersion_ThrowsConflict() {
+        testProductUpdateDTO.setVersion(3L);
+        testProduct.setVersion(4L);
+        when(productMapper.toEntity(testProductUpdateDTO)).thenReturn(new Product());
+        when(productRepository.updateIfCurrent(any(), eq(3L), any())).thenReturn(Optional.empty());
         when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
 
-        productService.deleteProduct(1L);
+        ProductConflictException ex = assertThrows(ProductConflictException.class,
+                () -> productService.updateProduct(1L, testProductUpdateDTO));
+        assertTrue(ex.getMessage().contains("expected version 3 but found 4"));
+    }
+
+    @Test
+    void deleteProduct_Success() {
+        when(productRepository.softDeleteIfCurrent(eq(1L), isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new ProductPriceChange(1L, testProduct.getPrice(), testProduct.getPrice())));
 
-        assertEquals(ProductStatus.DELETED, testProduct.getStatus());
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productRepository).save(testProduct);
+        productService.deleteProduct(1L, null);
+
+        verify(productRepository, never()).save(any());
+        verify(productCacheInvalidator).evictProducts(List.of(1L));
+        verify(productCacheInvalidator).evictPriceWindows(testProduct.getPrice());
+        verify(productOutboxRepository).append(ProductChangeType.DELETED, List.of(1L));
+        verify(productCounter).invalidate();
     }
 
     @Test
     void deleteProduct_ProductNotFound_ThrowsException() {
+        when(productRepository.softDeleteIfCurrent(eq(1L), eq(2L), any())).thenReturn(Optional.empty());
         when(productRepository.findByIdAndStatusNot(1L, ProductStatus.DELETED)).thenReturn(Optional.empty());
 
-        assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(1L));
-        verify(productRepository).findByIdAndStatusNot(1L, ProductStatus.DELETED);
-        verify(productRepository, never()).save(any());
+        assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(1L, 2L));
     }
 
     @Test
-    void getExpensiveProducts_Success() {
-        Double minPrice = 50.0;
-        when(productRepository.findExpensiveProducts(BigDecimal.valueOf(minPrice), ProductStatus.DELETED.name()))
-                .thenReturn(List.of(testProduct));
-        when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
+    void createProducts_InvalidItem_ReportedAndSkipped() {
+        ProductCreateDTO invalid = ProductCreateDTO.builder().name("").price(Money.valueOf("-1.0")).build();
+        when(productMapper.toEntity(testProductCreateDTO)).thenReturn(testProduct);
+        when(productRepository.insertAll(List.of(testProduct))).thenReturn(List.of(testProduct));
 
-        List<ProductDTO> result = productService.getExpensiveProducts(minPrice);
+        BulkResultDTO result = productService.createProducts(List.of(testProductCreateDTO, invalid));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testProductDTO.getName(), result.get(0).getName());
-        verify(productRepository).findExpensiveProducts(BigDecimal.valueOf(minPrice), ProductStatus.DELETED.name());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(BulkItemStatus.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertEquals(BulkItemStatus.INVALID, result.getItems().get(1).getStatus());
+        assertEquals(1, result.getItems().get(1).getIndex());
+        verify(productCacheInvalidator).evictPriceWindows(List.of(testProduct.getPrice()));
+    }
+
+    @Test
+    void updateProducts_MissingId_ReportedAsNotFound() {
+        ProductBulkUpdateDTO existing = ProductBulkUpdateDTO.builder().id(1L).name("Updated").price(Money.valueOf("150.0")).build();
+        ProductBulkUpdateDTO missing = ProductBulkUpdateDTO.builder().id(2L).name("Missing").price(Money.valueOf("10.0")).build();
+        Product existingEntity = Product.builder().id(1L).name("Updated").price(Money.valueOf("150.0")).build();
+        Product missingEntity = Product.builder().id(2L).name("Missing").price(Money.valueOf("10.0")).build();
+        when(productMapper.toEntity(existing)).thenReturn(existingEntity);
+        when(productMapper.toEntity(missing)).thenReturn(missingEntity);
+        when(productRepository.updateAll(eq(List.of(existingEntity, missingEntity)), any()))
+                .thenReturn(List.of(new ProductPriceChange(1L, Money.valueOf("100.0"), Money.valueOf("150.0"))));
+
+        BulkResultDTO result = productService.updateProducts(List.of(existing, missing));
+
+        assertEquals(BulkItemStatus.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+        verify(productCacheInvalidator).evictProducts(Set.of(1L));
+        verify(productCacheInvalidator).evictPriceWindows(List.of(Money.valueOf("100.0"), Money.valueOf("150.0")));
+        verify(productOutboxRepository).append(ProductChangeType.UPDATED, Set.of(1L));
+    }
+
+    @Test
+    void updateProducts_RepeatedId_AppliesFirstAndReportsDuplicate() {
+        ProductBulkUpdateDTO first = ProductBulkUpdateDTO.builder().id(1L).name("First").price(Money.valueOf("150.0")).build();
+        ProductBulkUpdateDTO repeated = ProductBulkUpdateDTO.builder().id(1L).name("Second").price(Money.valueOf("10.0")).build();
+        Product firstEntity = Product.builder().id(1L).name("First").price(Money.valueOf("150.0")).build();
+        when(productMapper.toEntity(first)).thenReturn(firstEntity);
+        when(productRepository.updateAll(eq(List.of(firstEntity)), any()))
+                .thenReturn(List.of(new ProductPriceChange(1L, Money.valueOf("100.0"), Money.valueOf("150.0"))));
+
+        BulkResultDTO result = productService.updateProducts(List.of(first, repeated));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkItemStatus.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.DUPLICATE, result.getItems().get(1).getStatus());
+        verify(productMapper, never()).toEntity(repeated);
+    }
+
+    @Test
+    void updateProducts_StaleVersion_ReportedAsConflict() {
+        ProductBulkUpdateDTO stale = ProductBulkUpdateDTO.builder().id(1L).name("Stale").price(Money.valueOf("150.0")).version(3L).build();
+        ProductBulkUpdateDTO missing = ProductBulkUpdateDTO.builder().id(2L).name("Missing").price(Money.valueOf("10.0")).version(1L).build();
+        Product staleEntity = Product.builder().id(1L).name("Stale").price(Money.valueOf("150.0")).version(3L).build();
+        Product missingEntity = Product.builder().id(2L).name("Missing").price(Money.valueOf("10.0")).version(1L).build();
+        when(productMapper.toEntity(stale)).thenReturn(staleEntity);
+        when(productMapper.toEntity(missing)).thenReturn(missingEntity);
+        when(productRepository.updateAll(anyList(), any())).thenReturn(List.of());
+        when(productRepository.findActiveByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(Product.builder().id(1L).version(4L).build()));
+
+        BulkResultDTO result = productService.updateProducts(List.of(stale, missing));
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(BulkItemStatus.CONFLICT, result.getItems().get(0).getStatus());
+        assertTrue(result.getItems().get(0).getMessage().contains("expected version 3 but found 4"));
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+    }
+
+    @Test
+    void deleteProducts_ReportsPerItem() {
+        when(productRepository.softDeleteAll(any(), any()))
+                .thenReturn(List.of(new ProductPriceChange(1L, Money.valueOf("100.0"), Money.valueOf("100.0"))));
+
+        BulkResultDTO result = productService.deleteProducts(List.of(1L, 99L));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkItemStatus.DELETED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+        verify(productRepository, never()).updateAll(anyList(), any());
+        verify(productOutboxRepository).append(ProductChangeType.DELETED, Set.of(1L));
+        verify(productCounter).invalidate();
     }
-}
\ No newline at end of file
+}